@@ -82,13 +82,22 @@ public class Main {
                 continue;
             }
 
-            Board board = new Board();
-            board.initializeBoard();
+            Board board;
+            try {
+                board = BoardPool.acquire(parseResult.getStartingFen());
+            } catch (IllegalArgumentException e) {
+                ErrorReport setupReport = new ErrorReport(gameId);
+                setupReport.addGameStateError(ErrorType.INVALID_BOARD_STATE, "Invalid FEN header: " + e.getMessage());
+                errorReporter.logReport(setupReport);
+                invalidGames++;
+                continue;
+            }
             System.out.println("\nInitial board state:");
             board.printBoard();
 
             boolean gameValid = true;
             ErrorReport moveReport = new ErrorReport(gameId);
+            MoveValidation validation = null;
 
             for (int i = 0; i < parseResult.moves.size(); i++) {
                 String moveText = parseResult.moves.get(i);
@@ -97,6 +106,19 @@ public class Main {
 
                 System.out.printf("\nMove %d: %s (%s)", moveNumber, moveText, color);
 
+                validation = validation == null
+                        ? new MoveValidation(moveNumber, moveText, color)
+                        : validation.reset(moveNumber, moveText, color);
+                if (!validation.validateGameInProgress(board)) {
+                    validation.getErrors().forEach(error ->
+                            moveReport.addMoveError(ErrorType.ILLEGAL_MOVE,
+                                    error,
+                                    moveNumber,
+                                    moveText));
+                    gameValid = false;
+                    break;
+                }
+
                 if (moveText.equals("O-O") || moveText.equals("O-O-O")) {
                     boolean kingside = moveText.equals("O-O");
                     if (!board.tryCastle(color, kingside)) {
@@ -112,7 +134,6 @@ public class Main {
                     continue;
                 }
 
-                MoveValidation validation = new MoveValidation(moveNumber, moveText, color);
                 if (!validation.validateMove(moveText, color, board)) {
                     validation.getErrors().forEach(error ->
                             moveReport.addMoveError(ErrorType.ILLEGAL_MOVE,
@@ -123,9 +144,7 @@ public class Main {
                     break;
                 }
 
-                MoveCoordinates coords = validation.getCoordinates();
-                String promotion = parseResult.getPromotion(i);
-                if (!board.tryMove(coords.from, coords.to, promotion)) {
+                if (!board.tryMove(validation.getMove())) {
                     moveReport.addMoveError(ErrorType.ILLEGAL_MOVE,
                             "Failed to execute move: " + moveText,
                             moveNumber,
@@ -137,10 +156,12 @@ public class Main {
                 System.out.println("\nBoard after move:");
                 board.printBoard();
 
-                if (board.isCheckmate(color.equals("white") ? "black" : "white")) {
+                GameStatus status = board.status();
+                if (status.isCheckmate()) {
                     System.out.println("Checkmate!");
-                    break;
-                } else if (board.isKingInCheck(color.equals("white") ? "black" : "white")) {
+                } else if (status.isGameOver()) {
+                    System.out.println("Draw: " + status);
+                } else if (status.isCheck()) {
                     System.out.println("Check!");
                 }
             }
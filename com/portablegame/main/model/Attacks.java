@@ -0,0 +1,189 @@
+package com.portablegame.main.model;
+
+import java.util.SplittableRandom;
+
+import static com.portablegame.main.model.Bitboards.*;
+
+/**
+ * Precomputed attack tables: fixed knight, king and pawn targets and pawn pushes per square, empty-board
+ * rays, and magic-indexed rook and bishop attacks. Tables are built once at class init; lookups never walk rays.
+ */
+public final class Attacks {
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+    // one-step push target per side, and the two-step target from the starting rank (empty elsewhere)
+    private static final long[][] PAWN_PUSH = new long[2][64];
+    private static final long[][] PAWN_DOUBLE_PUSH = new long[2][64];
+    private static final long[] ROOK_RAYS = new long[64];
+    private static final long[] BISHOP_RAYS = new long[64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    // squares strictly between two aligned squares, and the full line through them; empty otherwise
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x6D61676963L);
+        for (int square = 0; square < 64; square++) {
+            KNIGHT[square] = Bitboards.knightAttacks(square);
+            KING[square] = Bitboards.kingAttacks(square);
+            PAWN[WHITE][square] = Bitboards.pawnAttacks(WHITE, square);
+            PAWN[BLACK][square] = Bitboards.pawnAttacks(BLACK, square);
+            int row = rowOf(square);
+            if (row > 0 && row < 7) {
+                PAWN_PUSH[WHITE][square] = bit(square - 8);
+                PAWN_PUSH[BLACK][square] = bit(square + 8);
+            }
+            if (row == 6) {
+                PAWN_DOUBLE_PUSH[WHITE][square] = bit(square - 16);
+            } else if (row == 1) {
+                PAWN_DOUBLE_PUSH[BLACK][square] = bit(square + 16);
+            }
+            ROOK_RAYS[square] = Bitboards.rookAttacks(square, 0L);
+            BISHOP_RAYS[square] = Bitboards.bishopAttacks(square, 0L);
+
+            ROOK_MASKS[square] = relevantOccupancy(square, true);
+            BISHOP_MASKS[square] = relevantOccupancy(square, false);
+            ROOK_TABLE[square] = buildTable(square, true, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, random);
+            BISHOP_TABLE[square] = buildTable(square, false, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, random);
+        }
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                if (a == b) {
+                    continue;
+                }
+                if ((ROOK_RAYS[a] & bit(b)) != 0) {
+                    BETWEEN[a][b] = Bitboards.rookAttacks(a, bit(b)) & Bitboards.rookAttacks(b, bit(a));
+                    LINE[a][b] = (ROOK_RAYS[a] & ROOK_RAYS[b]) | bit(a) | bit(b);
+                } else if ((BISHOP_RAYS[a] & bit(b)) != 0) {
+                    BETWEEN[a][b] = Bitboards.bishopAttacks(a, bit(b)) & Bitboards.bishopAttacks(b, bit(a));
+                    LINE[a][b] = (BISHOP_RAYS[a] & BISHOP_RAYS[b]) | bit(a) | bit(b);
+                }
+            }
+        }
+    }
+
+    private Attacks() {}
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    public static long pawn(int side, int square) {
+        return PAWN[side][square];
+    }
+
+    public static long pawnPush(int side, int square) {
+        return PAWN_PUSH[side][square];
+    }
+
+    public static long pawnDoublePush(int side, int square) {
+        return PAWN_DOUBLE_PUSH[side][square];
+    }
+
+    // rook and bishop lines from the square on an empty board
+    public static long rookRays(int square) {
+        return ROOK_RAYS[square];
+    }
+
+    public static long bishopRays(int square) {
+        return BISHOP_RAYS[square];
+    }
+
+    public static long rook(int square, long occupied) {
+        return ROOK_TABLE[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    public static long bishop(int square, long occupied) {
+        return BISHOP_TABLE[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    // squares whose occupancy can change the slider's attack set: the rays minus the board edge
+    private static long relevantOccupancy(int square, boolean rook) {
+        int row = rowOf(square);
+        int col = colOf(square);
+        long mask = 0L;
+        int[][] directions = rook
+                ? new int[][]{{-1, 0}, {1, 0}, {0, -1}, {0, 1}}
+                : new int[][]{{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+        for (int[] direction : directions) {
+            int r = row + direction[0];
+            int c = col + direction[1];
+            while (r + direction[0] >= 0 && r + direction[0] < 8 && c + direction[1] >= 0 && c + direction[1] < 8) {
+                mask |= bit(square(r, c));
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long[] buildTable(int square, boolean rook, long[] masks, long[] magics, int[] shifts,
+                                     SplittableRandom random) {
+        long mask = masks[square];
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+        long[] occupancies = new long[size];
+        long[] references = new long[size];
+
+        // enumerate every subset of the mask
+        long subset = 0L;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            references[i] = rook ? Bitboards.rookAttacks(square, subset) : Bitboards.bishopAttacks(square, subset);
+            subset = (subset - mask) & mask;
+        }
+
+        long[] table = new long[size];
+        int[] epoch = new int[size];
+        int attempt = 0;
+        while (true) {
+            long magic = random.nextLong() & random.nextLong() & random.nextLong();
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+            attempt++;
+            boolean collision = false;
+            for (int i = 0; i < size && !collision; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                if (epoch[index] != attempt) {
+                    epoch[index] = attempt;
+                    table[index] = references[i];
+                } else if (table[index] != references[i]) {
+                    collision = true;
+                }
+            }
+            if (!collision) {
+                magics[square] = magic;
+                shifts[square] = 64 - bits;
+                return table;
+            }
+        }
+    }
+}
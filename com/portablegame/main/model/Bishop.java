@@ -1,30 +1,34 @@
 package com.portablegame.main.model;
 
+import static com.portablegame.main.model.Bitboards.*;
+
 public class Bishop extends Piece {
-    public Bishop(String color, int row, int col, Board board) {
-        super(color, row, col, board);
+    Bishop(int side) {
+        super(side);
     }
 
-
     @Override
-    public boolean isValidMove(int toRow, int toCol) {
-        int rowDiff = Math.abs(toRow - row);
-        int colDiff = Math.abs(toCol - col);
+    public int getType() {
+        return BISHOP;
+    }
 
+
+    @Override
+    public boolean isValidMove(Board board, int from, int to) {
         // diagonally
-        if (rowDiff != colDiff) return false;
-        if (!board.isPathClear(row, col, toRow, toCol)) return false;
-        Piece target = board.getPieceAt(toRow, toCol);
+        if ((Attacks.bishopRays(from) & bit(to)) == 0) return false;
+        if (!board.isPathClear(from, to)) return false;
+        Piece target = board.getPieceAt(to);
         return target == null || isOpponent(target);
     }
 
     @Override
     public String getSymbol() {
-        return color.equals("white") ? "♗" : "♝";
+        return side == WHITE ? "♗" : "♝";
     }
 
     @Override
     public String getFENSymbol() {
-        return color.equals("white") ? "B" : "b";
+        return side == WHITE ? "B" : "b";
     }
-}
\ No newline at end of file
+}
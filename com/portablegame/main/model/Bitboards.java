@@ -0,0 +1,132 @@
+package com.portablegame.main.model;
+
+/**
+ * Helpers for the 64-bit square masks behind {@link Board}.
+ * Squares follow the board array layout: square = row * 8 + col, so bit 0 is a8 and bit 63 is h1.
+ */
+public final class Bitboards {
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = 0x8080808080808080L;
+    public static final long LIGHT_SQUARES = 0xAA55AA55AA55AA55L;
+
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    private static final int[][] KNIGHT_STEPS = {
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}
+    };
+    private static final int[][] KING_STEPS = {
+            {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}
+    };
+
+    private Bitboards() {}
+
+    public static int square(int row, int col) {
+        return row * 8 + col;
+    }
+
+    public static int rowOf(int square) {
+        return square >>> 3;
+    }
+
+    public static int colOf(int square) {
+        return square & 7;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static int pieceIndex(int side, int type) {
+        return side * 6 + type;
+    }
+
+    // String colors only appear at the API edges; everything inside the model uses WHITE/BLACK
+    public static int sideOf(String color) {
+        return color.equals("white") ? WHITE : BLACK;
+    }
+
+    public static String colorName(int side) {
+        return side == WHITE ? "white" : "black";
+    }
+
+    public static int typeOf(Piece piece) {
+        return piece.getType();
+    }
+
+    public static int indexOf(Piece piece) {
+        return pieceIndex(piece.getSide(), piece.getType());
+    }
+
+    public static long knightAttacks(int square) {
+        return stepAttacks(square, KNIGHT_STEPS);
+    }
+
+    public static long kingAttacks(int square) {
+        return stepAttacks(square, KING_STEPS);
+    }
+
+    // squares a pawn of the given side attacks from the square (white moves towards row 0)
+    public static long pawnAttacks(int side, int square) {
+        long b = bit(square);
+        if (side == WHITE) {
+            return ((b & ~FILE_A) >>> 9) | ((b & ~FILE_H) >>> 7);
+        }
+        return ((b & ~FILE_A) << 7) | ((b & ~FILE_H) << 9);
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return slidingAttacks(square, occupied, ROOK_DIRECTIONS);
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return slidingAttacks(square, occupied, BISHOP_DIRECTIONS);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    private static long stepAttacks(int square, int[][] steps) {
+        int row = rowOf(square);
+        int col = colOf(square);
+        long attacks = 0L;
+        for (int[] step : steps) {
+            int r = row + step[0];
+            int c = col + step[1];
+            if (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                attacks |= bit(square(r, c));
+            }
+        }
+        return attacks;
+    }
+
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        int row = rowOf(square);
+        int col = colOf(square);
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int r = row + direction[0];
+            int c = col + direction[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                long b = bit(square(r, c));
+                attacks |= b;
+                if ((occupied & b) != 0) {
+                    break;
+                }
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return attacks;
+    }
+}
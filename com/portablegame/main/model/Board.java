@@ -1,32 +1,366 @@
 package com.portablegame.main.model;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+
+import static com.portablegame.main.model.Bitboards.*;
 
 public class Board {
-    private Piece[][] board;
-    private String enPassantTarget;
-    private boolean whiteKingMoved;
-    private boolean blackKingMoved;
-    private boolean[] whiteRooksMoved = {false, false};
-    private boolean[] blackRooksMoved = {false, false};
-    private List<String> moveHistory = new ArrayList<>();
-    private String currentPlayer = "white";
+    private static final int WHITE_KINGSIDE = 1;
+    private static final int WHITE_QUEENSIDE = 2;
+    private static final int BLACK_KINGSIDE = 4;
+    private static final int BLACK_QUEENSIDE = 8;
+    // rights kept when a move touches the square: king and rook home squares clear their rights
+    private static final int[] CASTLING_MASK = new int[64];
+    private static final String FEN_SYMBOLS = "PNBRQKpnbrqk";
+    private static final int HISTORY_SIZE = 256;
+    private static final int HISTORY_MASK = HISTORY_SIZE - 1;
+    // extra bits on moves in the history ring, above the packed move fields
+    private static final int HISTORY_CAPTURE = 1 << 20;
+    private static final int HISTORY_BLACK = 1 << 21;
+    private static final long BACK_RANKS = 0xFF000000000000FFL;
+    // FEN move counters stay within the 16 bits the undo state keeps for the halfmove clock
+    private static final int MAX_MOVE_COUNTER = 0xFFFF;
+    // fields of the packed material signature, 4 bits each and 24 bits per side
+    private static final int SIG_PAWN = 0;
+    private static final int SIG_KNIGHT = 1;
+    private static final int SIG_LIGHT_BISHOP = 2;
+    private static final int SIG_DARK_BISHOP = 3;
+    private static final int SIG_ROOK = 4;
+    private static final int SIG_QUEEN = 5;
+    private static final long MATING_MATERIAL = 0xFF000FL | 0xFF000FL << 24;
+    // dead-material table over both sides' minor counts, see minorsIndex
+    private static final boolean[] DEAD_MINORS = new boolean[1 << 12];
+
+    static {
+        Arrays.fill(CASTLING_MASK, 15);
+        CASTLING_MASK[square(7, 4)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[square(7, 7)] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[square(7, 0)] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[square(0, 4)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[square(0, 7)] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[square(0, 0)] &= ~BLACK_QUEENSIDE;
+    }
+
+    static {
+        for (int index = 0; index < DEAD_MINORS.length; index++) {
+            int knights = (index & 3) + (index >> 6 & 3);
+            int lightBishops = (index >> 2 & 3) + (index >> 8 & 3);
+            int darkBishops = (index >> 4 & 3) + (index >> 10 & 3);
+            DEAD_MINORS[index] = knights + lightBishops + darkBishops <= 1
+                    || (knights == 0 && (lightBishops == 0 || darkBishops == 0));
+        }
+    }
+
+    // template for reset(): the initial position, built once and only ever copied from
+    private static final Board START = new Board();
+
+    // piece codes per square: 0 when empty, otherwise the piece index + 1
+    private final byte[] squares = new byte[64];
+    private final long[] pieceMasks = new long[12];
+    private final long[] colorMasks = new long[2];
+    // the piece masks double as per-type piece lists; counts and king squares avoid popcounts and scans
+    private final int[] pieceCounts = new int[12];
+    private final int[] kingSquares = {-1, -1};
+    // packed material: a 4-bit count per side for pawns, knights, light- and dark-square bishops, rooks
+    // and queens, added to and subtracted from by placePiece so captures and promotions keep it current
+    private long materialSignature;
+    // attack maps kept in step with placePiece: what each square's piece attacks, and who attacks each square
+    private final long[] attacksFrom = new long[64];
+    private final long[] attackersOf = new long[64];
+    private boolean verifyAttackMaps = Boolean.getBoolean("portablegame.verifyAttackMaps");
+    private int enPassantSquare = -1;
+    private int castlingRights;
+    private int sideToMove = WHITE;
     private int halfMoveClock = 0;
     private int fullMoveNumber = 1;
-    private Map<String, Integer> positionCounts = new HashMap<>();
+    // the last HISTORY_SIZE position keys and played moves; a repetition can only reach back to the last
+    // capture or pawn move, and the fifty- and seventy-five-move rules keep that well inside the ring
+    private final long[] keyHistory = new long[HISTORY_SIZE];
+    private final int[] moveHistory = new int[HISTORY_SIZE];
+    private int keyCount;
+    private int moveCount;
+    private long positionKey;
     private boolean whiteResigned = false;
     private boolean blackResigned = false;
+    // undo records for makeMove/unmakeMove: the move, packed clocks and rights, the previous key,
+    // and the captured and moving piece codes to put back
+    private int[] undoMoves = new int[16];
+    private long[] undoStates = new long[16];
+    private long[] undoKeys = new long[16];
+    private byte[] undoPieces = new byte[32];
+    private int undoSize;
+    private final MoveList scratchMoves = new MoveList();
+    // FEN placement text per rank, re-encoded only for ranks placePiece marked dirty, plus the last full FEN
+    private final char[] rankText = new char[64];
+    private final int[] rankLength = new int[8];
+    private int dirtyRanks = 0xFF;
+    private final StringBuilder fenBuffer = new StringBuilder(90);
+    private String cachedFEN;
+    private long cachedFENKey;
+    private int cachedFENHalfMove;
+    private int cachedFENFullMove;
+    // pin and check data for one side, recomputed only when the position key or the side changes
+    private long checkers;
+    private long pinned;
+    private long checkMask;
+    private long checkInfoKey;
+    private int checkInfoSide = -1;
+    // status of the current position; the key ring length and clock guard the repetition and fifty-move flags
+    private GameStatus cachedStatus;
+    private long statusKey;
+    private int statusKeyCount;
+    private int statusHalfMove;
 
     public Board() {
-        this.board = new Piece[8][8];
         initializeBoard();
     }
 
+    private Board(String fen) {
+        loadFEN(fen);
+    }
+
+    // independent copy of the position and game state; pieces are shared rule objects, so nothing is cloned
+    public Board(Board other) {
+        other.copyInto(this);
+    }
+
+    public Board snapshot() {
+        return new Board(this);
+    }
+
+    // immutable copy of the current position; the game history is not carried over
+    public Position toPosition() {
+        return new Position(Arrays.copyOfRange(pieceMasks, 0, 6), Arrays.copyOfRange(pieceMasks, 6, 12),
+                sideToMove, castlingRights, enPassantSquare, halfMoveClock, fullMoveNumber, positionKey,
+                null, Move.NONE, 0);
+    }
+
+    // packing for CompactBoard: four bits per square (the piece code), sixteen squares per long
+    void packSquares(long[] out) {
+        for (int word = 0; word < 4; word++) {
+            long packed = 0L;
+            for (int i = 15; i >= 0; i--) {
+                packed = packed << 4 | squares[word * 16 + i];
+            }
+            out[word] = packed;
+        }
+    }
+
+    // side to move in bit 0, castling rights in bits 1-4, en passant square + 1 from bit 5
+    int packState() {
+        return sideToMove | castlingRights << 1 | (enPassantSquare + 1) << 5;
+    }
+
+    // keys of the earlier positions a repetition can still reach, oldest first; returns how many
+    int recentKeys(long[] out) {
+        int count = recentKeyCount();
+        for (int i = 0; i < count; i++) {
+            out[i] = keyHistory[(keyCount - 1 - count + i) & HISTORY_MASK];
+        }
+        return count;
+    }
+
+    int recentKeyCount() {
+        return Math.min(Math.min(halfMoveClock, keyCount - 1), HISTORY_SIZE - 1);
+    }
+
+    // rebuilds the board from its packed form; the move list and undo stack start empty
+    void unpack(long[] packedSquares, int state, int halfMove, int fullMove, long[] keys, int count) {
+        clearPosition();
+        for (int square = 0; square < 64; square++) {
+            int code = (int) (packedSquares[square >> 4] >>> ((square & 15) * 4)) & 0xF;
+            if (code != 0) {
+                placePiece(rowOf(square), colOf(square), code - 1);
+            }
+        }
+        sideToMove = state & 1;
+        castlingRights = state >> 1 & 15;
+        enPassantSquare = (state >> 5) - 1;
+        halfMoveClock = halfMove;
+        fullMoveNumber = fullMove;
+        positionKey = computePositionKey();
+        System.arraycopy(keys, 0, keyHistory, 0, count);
+        keyCount = count;
+        recordPosition();
+    }
+
+    // overwrites the target with this board's full state, reusing its arrays; a pooled target
+    // allocates nothing once its undo stack and history have grown to size. The source must not be
+    // mutated while the copy runs, so copy on the owning thread and hand the target to readers.
+    public void copyInto(Board target) {
+        if (target == this) {
+            return;
+        }
+        System.arraycopy(squares, 0, target.squares, 0, 64);
+        System.arraycopy(pieceMasks, 0, target.pieceMasks, 0, 12);
+        System.arraycopy(colorMasks, 0, target.colorMasks, 0, 2);
+        System.arraycopy(pieceCounts, 0, target.pieceCounts, 0, 12);
+        System.arraycopy(kingSquares, 0, target.kingSquares, 0, 2);
+        System.arraycopy(attacksFrom, 0, target.attacksFrom, 0, 64);
+        System.arraycopy(attackersOf, 0, target.attackersOf, 0, 64);
+        target.verifyAttackMaps = verifyAttackMaps;
+        target.enPassantSquare = enPassantSquare;
+        target.castlingRights = castlingRights;
+        target.materialSignature = materialSignature;
+        System.arraycopy(keyHistory, 0, target.keyHistory, 0, HISTORY_SIZE);
+        System.arraycopy(moveHistory, 0, target.moveHistory, 0, HISTORY_SIZE);
+        target.keyCount = keyCount;
+        target.moveCount = moveCount;
+        target.sideToMove = sideToMove;
+        target.halfMoveClock = halfMoveClock;
+        target.fullMoveNumber = fullMoveNumber;
+        target.positionKey = positionKey;
+        target.whiteResigned = whiteResigned;
+        target.blackResigned = blackResigned;
+
+        if (target.undoMoves.length < undoSize) {
+            target.undoMoves = new int[undoMoves.length];
+            target.undoStates = new long[undoMoves.length];
+            target.undoKeys = new long[undoMoves.length];
+            target.undoPieces = new byte[undoPieces.length];
+        }
+        System.arraycopy(undoMoves, 0, target.undoMoves, 0, undoSize);
+        System.arraycopy(undoStates, 0, target.undoStates, 0, undoSize);
+        System.arraycopy(undoKeys, 0, target.undoKeys, 0, undoSize);
+        System.arraycopy(undoPieces, 0, target.undoPieces, 0, 2 * undoSize);
+        target.undoSize = undoSize;
+
+        target.checkers = checkers;
+        target.pinned = pinned;
+        target.checkMask = checkMask;
+        target.checkInfoKey = checkInfoKey;
+        target.checkInfoSide = checkInfoSide;
+        target.cachedStatus = cachedStatus;
+        target.statusKey = statusKey;
+        target.statusKeyCount = statusKeyCount;
+        target.statusHalfMove = statusHalfMove;
+
+        System.arraycopy(rankText, 0, target.rankText, 0, 64);
+        System.arraycopy(rankLength, 0, target.rankLength, 0, 8);
+        target.dirtyRanks = dirtyRanks;
+        target.cachedFEN = cachedFEN;
+        target.cachedFENKey = cachedFENKey;
+        target.cachedFENHalfMove = cachedFENHalfMove;
+        target.cachedFENFullMove = cachedFENFullMove;
+    }
+
     public void setPieceAt(int row, int col, Piece piece) {
-        board[row][col] = piece;
+        placePiece(row, col, piece == null ? -1 : indexOf(piece));
+    }
+
+    // every square write goes through here so the piece masks stay in sync with the square codes
+    private void placePiece(int row, int col, int index) {
+        int square = square(row, col);
+        long squareBit = bit(square);
+        int previous = squares[square] - 1;
+        if (previous >= 0) {
+            pieceMasks[previous] &= ~squareBit;
+            colorMasks[previous / 6] &= ~squareBit;
+            pieceCounts[previous]--;
+            materialSignature -= materialUnit(previous, square);
+            positionKey ^= Zobrist.PIECE_SQUARE[previous][square];
+            if (previous % 6 == KING) {
+                updateKingSquare(previous);
+            }
+        }
+        squares[square] = (byte) (index + 1);
+        dirtyRanks |= 1 << row;
+        if (index >= 0) {
+            pieceMasks[index] |= squareBit;
+            colorMasks[index / 6] |= squareBit;
+            pieceCounts[index]++;
+            materialSignature += materialUnit(index, square);
+            positionKey ^= Zobrist.PIECE_SQUARE[index][square];
+            if (index % 6 == KING) {
+                updateKingSquare(index);
+            }
+        }
+        updateAttackMaps(square, index, (previous < 0) != (index < 0));
+    }
+
+    private void updateKingSquare(int kingIndex) {
+        long kings = pieceMasks[kingIndex];
+        kingSquares[kingIndex / 6] = kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+    }
+
+    // only the piece on the square and sliders whose rays reach it can change their attack sets
+    private void updateAttackMaps(int square, int index, boolean occupancyChanged) {
+        long occupied = colorMasks[WHITE] | colorMasks[BLACK];
+        setAttacksFrom(square, index < 0 ? 0L : attacksOf(index, square, occupied));
+        if (occupancyChanged) {
+            for (long sliders = attackersOf[square] & sliderMask(); sliders != 0; sliders &= sliders - 1) {
+                int slider = Long.numberOfTrailingZeros(sliders);
+                setAttacksFrom(slider, attacksOf(indexAt(slider), slider, occupied));
+            }
+        }
+    }
+
+    private void setAttacksFrom(int square, long attacks) {
+        long squareBit = bit(square);
+        for (long changed = attacksFrom[square] ^ attacks; changed != 0; changed &= changed - 1) {
+            attackersOf[Long.numberOfTrailingZeros(changed)] ^= squareBit;
+        }
+        attacksFrom[square] = attacks;
+    }
+
+    private long sliderMask() {
+        return pieceMasks[BISHOP] | pieceMasks[ROOK] | pieceMasks[QUEEN]
+                | pieceMasks[6 + BISHOP] | pieceMasks[6 + ROOK] | pieceMasks[6 + QUEEN];
+    }
+
+    private int indexAt(int square) {
+        return squares[square] - 1;
+    }
+
+    private static long attacksOf(int index, int square, long occupied) {
+        switch (index % 6) {
+            case PAWN: return Attacks.pawn(index / 6, square);
+            case KNIGHT: return Attacks.knight(square);
+            case BISHOP: return Attacks.bishop(square, occupied);
+            case ROOK: return Attacks.rook(square, occupied);
+            case QUEEN: return Attacks.queen(square, occupied);
+            default: return Attacks.king(square);
+        }
+    }
+
+    public long getAttackedSquares(String color) {
+        long attacked = 0L;
+        for (long pieces = colorMasks[sideOf(color)]; pieces != 0; pieces &= pieces - 1) {
+            attacked |= attacksFrom[Long.numberOfTrailingZeros(pieces)];
+        }
+        return attacked;
+    }
+
+    public long getAttackers(int row, int col) {
+        return attackersOf[square(row, col)];
+    }
+
+    // debug mode: cross-check the incremental maps against a full recompute after every move
+    public void setAttackMapVerification(boolean enabled) {
+        this.verifyAttackMaps = enabled;
+    }
+
+    public boolean isAttackMapVerification() {
+        return verifyAttackMaps;
+    }
+
+    public boolean attackMapsConsistent() {
+        long occupied = colorMasks[WHITE] | colorMasks[BLACK];
+        for (int square = 0; square < 64; square++) {
+            int index = indexAt(square);
+            long expected = index < 0 ? 0L : attacksOf(index, square, occupied);
+            if (attacksFrom[square] != expected) {
+                return false;
+            }
+            if (attackersOf[square] != (attackersTo(square, WHITE, occupied) | attackersTo(square, BLACK, occupied))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public boolean isPromotionMove(String from, String to) {
@@ -34,59 +368,385 @@ public class Board {
         if (!(piece instanceof Pawn)) return false;
 
         int toRow = 8 - Character.getNumericValue(to.charAt(1));
-        return (piece.getColor().equals("white") && toRow == 0) ||
-                (piece.getColor().equals("black") && toRow == 7);
+        return (piece.getSide() == WHITE && toRow == 0) ||
+                (piece.getSide() == BLACK && toRow == 7);
     }
 
     public void initializeBoard() {
+        clearPosition();
+
         for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                board[i][j] = null;
-            }
+            placePiece(1, i, pieceIndex(BLACK, PAWN));
+            placePiece(6, i, pieceIndex(WHITE, PAWN));
         }
 
-        for (int i = 0; i < 8; i++) {
-            board[1][i] = new Pawn("black", 1, i, this);
-            board[6][i] = new Pawn("white", 6, i, this);
-        }
-
-        board[0][0] = new Rook("black", 0, 0, this);
-        board[0][1] = new Knight("black", 0, 1, this);
-        board[0][2] = new Bishop("black", 0, 2, this);
-        board[0][3] = new Queen("black", 0, 3, this);
-        board[0][4] = new King("black", 0, 4, this);
-        board[0][5] = new Bishop("black", 0, 5, this);
-        board[0][6] = new Knight("black", 0, 6, this);
-        board[0][7] = new Rook("black", 0, 7, this);
-
-        board[7][0] = new Rook("white", 7, 0, this);
-        board[7][1] = new Knight("white", 7, 1, this);
-        board[7][2] = new Bishop("white", 7, 2, this);
-        board[7][3] = new Queen("white", 7, 3, this);
-        board[7][4] = new King("white", 7, 4, this);
-        board[7][5] = new Bishop("white", 7, 5, this);
-        board[7][6] = new Knight("white", 7, 6, this);
-        board[7][7] = new Rook("white", 7, 7, this);
-
-        enPassantTarget = null;
-        whiteKingMoved = false;
-        blackKingMoved = false;
-        whiteRooksMoved = new boolean[]{false, false};
-        blackRooksMoved = new boolean[]{false, false};
+        placePiece(0, 0, pieceIndex(BLACK, ROOK));
+        placePiece(0, 1, pieceIndex(BLACK, KNIGHT));
+        placePiece(0, 2, pieceIndex(BLACK, BISHOP));
+        placePiece(0, 3, pieceIndex(BLACK, QUEEN));
+        placePiece(0, 4, pieceIndex(BLACK, KING));
+        placePiece(0, 5, pieceIndex(BLACK, BISHOP));
+        placePiece(0, 6, pieceIndex(BLACK, KNIGHT));
+        placePiece(0, 7, pieceIndex(BLACK, ROOK));
+
+        placePiece(7, 0, pieceIndex(WHITE, ROOK));
+        placePiece(7, 1, pieceIndex(WHITE, KNIGHT));
+        placePiece(7, 2, pieceIndex(WHITE, BISHOP));
+        placePiece(7, 3, pieceIndex(WHITE, QUEEN));
+        placePiece(7, 4, pieceIndex(WHITE, KING));
+        placePiece(7, 5, pieceIndex(WHITE, BISHOP));
+        placePiece(7, 6, pieceIndex(WHITE, KNIGHT));
+        placePiece(7, 7, pieceIndex(WHITE, ROOK));
+
+        castlingRights = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+        positionKey = computePositionKey();
+        recordPosition();
+    }
+
+    private void clearPosition() {
+        Arrays.fill(squares, (byte) 0);
+        Arrays.fill(pieceMasks, 0L);
+        Arrays.fill(colorMasks, 0L);
+        Arrays.fill(attacksFrom, 0L);
+        Arrays.fill(attackersOf, 0L);
+        Arrays.fill(pieceCounts, 0);
+        Arrays.fill(kingSquares, -1);
+        materialSignature = 0;
+        cachedStatus = null;
+        dirtyRanks = 0xFF;
+
+        enPassantSquare = -1;
+        castlingRights = 0;
+        undoSize = 0;
         whiteResigned = false;
         blackResigned = false;
-        moveHistory.clear();
-        currentPlayer = "white";
+        keyCount = 0;
+        moveCount = 0;
+        sideToMove = WHITE;
         halfMoveClock = 0;
         fullMoveNumber = 1;
-        positionCounts.clear();
+    }
+
+    public static Board fromFEN(String fen) {
+        return new Board(fen);
+    }
+
+    // back to the initial position by array copies from a template, for boards reused across games;
+    // the board keeps its own attack map verification setting rather than the template's
+    public void reset() {
+        boolean verify = verifyAttackMaps;
+        START.copyInto(this);
+        verifyAttackMaps = verify;
+    }
+
+    // reuses this board for a position given as FEN; an illegal FEN throws and leaves the board unusable
+    // until the next reset
+    public void reset(String fen) {
+        loadFEN(fen);
+    }
+
+    // scans the FEN fields in place: placement, side, castling, en passant, then the optional clocks
+    private void loadFEN(String fen) {
+        clearPosition();
+        int length = fen.length();
+        int i = 0;
+        while (i < length && fen.charAt(i) == ' ') i++;
+
+        int row = 0;
+        int col = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (col != 8) {
+                    throw new IllegalArgumentException("Rank " + (8 - row) + " does not have 8 squares: " + fen);
+                }
+                row++;
+                col = 0;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                int type = "pnbrqk".indexOf(Character.toLowerCase(c));
+                if (type < 0 || row > 7 || col > 7) {
+                    throw new IllegalArgumentException("Bad piece placement '" + c + "': " + fen);
+                }
+                placePiece(row, col, pieceIndex(Character.isUpperCase(c) ? WHITE : BLACK, type));
+                col++;
+            }
+            if (col > 8) {
+                throw new IllegalArgumentException("Rank " + (8 - row) + " has more than 8 squares: " + fen);
+            }
+        }
+        if (row != 7 || col != 8) {
+            throw new IllegalArgumentException("Piece placement must describe 8 ranks: " + fen);
+        }
+
+        while (i < length && fen.charAt(i) == ' ') i++;
+        if (i >= length || (fen.charAt(i) != 'w' && fen.charAt(i) != 'b')) {
+            throw new IllegalArgumentException("Missing side to move: " + fen);
+        }
+        sideToMove = fen.charAt(i++) == 'w' ? WHITE : BLACK;
+
+        while (i < length && fen.charAt(i) == ' ') i++;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            switch (fen.charAt(i)) {
+                case 'K': castlingRights |= WHITE_KINGSIDE; break;
+                case 'Q': castlingRights |= WHITE_QUEENSIDE; break;
+                case 'k': castlingRights |= BLACK_KINGSIDE; break;
+                case 'q': castlingRights |= BLACK_QUEENSIDE; break;
+                case '-': break;
+                default: throw new IllegalArgumentException("Bad castling field: " + fen);
+            }
+        }
+
+        while (i < length && fen.charAt(i) == ' ') i++;
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else if (i + 1 < length && fen.charAt(i) >= 'a' && fen.charAt(i) <= 'h'
+                && fen.charAt(i + 1) >= '1' && fen.charAt(i + 1) <= '8') {
+            enPassantSquare = square('8' - fen.charAt(i + 1), fen.charAt(i) - 'a');
+            i += 2;
+        } else {
+            throw new IllegalArgumentException("Bad en passant field: " + fen);
+        }
+
+        int[] clocks = {0, 1};
+        for (int field = 0; field < 2; field++) {
+            while (i < length && fen.charAt(i) == ' ') i++;
+            if (i >= length) {
+                break;
+            }
+            int value = 0;
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                char c = fen.charAt(i);
+                if (c < '0' || c > '9') {
+                    throw new IllegalArgumentException("Bad move counter: " + fen);
+                }
+                value = value * 10 + (c - '0');
+                if (value > MAX_MOVE_COUNTER) {
+                    throw new IllegalArgumentException("Bad move counter: " + fen);
+                }
+            }
+            clocks[field] = value;
+        }
+        if (clocks[1] < 1) {
+            throw new IllegalArgumentException("Bad move counter: " + fen);
+        }
+        halfMoveClock = clocks[0];
+        fullMoveNumber = clocks[1];
+        positionKey = computePositionKey();
+        checkLegalPosition(fen);
+        recordPosition();
+    }
+
+    // rejects well-formed FENs that cannot arise in a game
+    private void checkLegalPosition(String fen) {
+        for (int side = WHITE; side <= BLACK; side++) {
+            String color = colorName(side);
+            if (pieceCounts[pieceIndex(side, KING)] != 1) {
+                throw new IllegalArgumentException("The " + color + " side must have exactly one king: " + fen);
+            }
+            if (pieceCounts[pieceIndex(side, PAWN)] > 8 || Long.bitCount(colorMasks[side]) > 16) {
+                throw new IllegalArgumentException("Too many " + color + " pieces: " + fen);
+            }
+        }
+        if (((pieceMasks[PAWN] | pieceMasks[6 + PAWN]) & BACK_RANKS) != 0) {
+            throw new IllegalArgumentException("Pawns cannot stand on the first or last rank: " + fen);
+        }
+        if (isKingInCheck(sideToMove ^ 1)) {
+            throw new IllegalArgumentException("The side that just moved is in check: " + fen);
+        }
+
+        for (int side = WHITE; side <= BLACK; side++) {
+            int row = side == WHITE ? 7 : 0;
+            int kingside = side == WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+            int queenside = side == WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+            if ((castlingRights & (kingside | queenside)) != 0 && kingSquares[side] != square(row, 4)) {
+                throw new IllegalArgumentException("Castling rights without the king on its home square: " + fen);
+            }
+            long rooks = pieceMasks[pieceIndex(side, ROOK)];
+            if (((castlingRights & kingside) != 0 && (rooks & bit(square(row, 7))) == 0)
+                    || ((castlingRights & queenside) != 0 && (rooks & bit(square(row, 0))) == 0)) {
+                throw new IllegalArgumentException("Castling rights without the rook on its home square: " + fen);
+            }
+        }
+
+        if (enPassantSquare >= 0) {
+            // the pawn that just moved two squares stands in front of the target, and both squares it crossed are empty
+            int them = sideToMove ^ 1;
+            int pawn = enPassantSquare + (sideToMove == WHITE ? 8 : -8);
+            int origin = enPassantSquare - (sideToMove == WHITE ? 8 : -8);
+            long occupied = colorMasks[WHITE] | colorMasks[BLACK];
+            if (rowOf(enPassantSquare) != (sideToMove == WHITE ? 2 : 5)
+                    || (pieceMasks[pieceIndex(them, PAWN)] & bit(pawn)) == 0
+                    || (occupied & (bit(enPassantSquare) | bit(origin))) != 0) {
+                throw new IllegalArgumentException("En passant square does not follow a double pawn push: " + fen);
+            }
+        }
+    }
+
+    // cheap identity of the position: pieces, side to move, castling rights and en passant file
+    public long positionKey() {
+        return positionKey;
+    }
+
+    private long computePositionKey() {
+        long key = 0L;
+        for (int index = 0; index < 12; index++) {
+            for (long pieces = pieceMasks[index]; pieces != 0; pieces &= pieces - 1) {
+                key ^= Zobrist.PIECE_SQUARE[index][Long.numberOfTrailingZeros(pieces)];
+            }
+        }
+        key ^= Zobrist.CASTLING[castlingRights];
+        if (enPassantSquare >= 0) {
+            key ^= Zobrist.EN_PASSANT_FILE[colOf(enPassantSquare)];
+        }
+        if (sideToMove == BLACK) {
+            key ^= Zobrist.BLACK_TO_MOVE;
+        }
+        return key;
+    }
+
+    // applies a move without any legality check and without touching the game history
+    private void doMove(int move) {
+        int fromRow = rowOf(Move.from(move));
+        int fromCol = colOf(Move.from(move));
+        int toRow = rowOf(Move.to(move));
+        int toCol = colOf(Move.to(move));
+        int piece = indexAt(Move.from(move));
+        boolean pawnMove = piece % 6 == PAWN;
+        boolean capture = squares[Move.to(move)] != 0 || Move.isEnPassant(move);
+
+        if (Move.isCastling(move)) {
+            int rookCol = toCol > fromCol ? 7 : 0;
+            int rookDestCol = toCol > fromCol ? 5 : 3;
+            placePiece(fromRow, rookDestCol, indexAt(square(fromRow, rookCol)));
+            placePiece(fromRow, rookCol, -1);
+        }
+        if (Move.isEnPassant(move)) {
+            placePiece(fromRow, toCol, -1);
+        }
+        placePiece(fromRow, fromCol, -1);
+        placePiece(toRow, toCol, Move.promotionType(move) != 0
+                ? pieceIndex(piece / 6, Move.promotionType(move)) : piece);
+
+        int rights = castlingRights & CASTLING_MASK[Move.from(move)] & CASTLING_MASK[Move.to(move)];
+        positionKey ^= Zobrist.CASTLING[castlingRights] ^ Zobrist.CASTLING[rights];
+        castlingRights = rights;
+
+        halfMoveClock = pawnMove || capture ? 0 : halfMoveClock + 1;
+        setEnPassantSquare(pawnMove && Math.abs(fromRow - toRow) == 2
+                ? square((fromRow + toRow) / 2, fromCol) : -1);
+
+        if (sideToMove == BLACK) {
+            fullMoveNumber++;
+        }
+        sideToMove ^= 1;
+        positionKey ^= Zobrist.BLACK_TO_MOVE;
+    }
+
+    // reversible form of doMove for trial moves; pair every call with unmakeMove
+    public void makeMove(int move) {
+        if (undoSize == undoMoves.length) {
+            undoMoves = Arrays.copyOf(undoMoves, undoSize * 2);
+            undoStates = Arrays.copyOf(undoStates, undoSize * 2);
+            undoKeys = Arrays.copyOf(undoKeys, undoSize * 2);
+            undoPieces = Arrays.copyOf(undoPieces, undoSize * 4);
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int capturedRow = Move.isEnPassant(move) ? rowOf(from) : rowOf(to);
+
+        undoMoves[undoSize] = move;
+        undoStates[undoSize] = castlingRights
+                | (long) (enPassantSquare + 1) << 4
+                | (long) halfMoveClock << 11
+                | (long) fullMoveNumber << 27;
+        undoKeys[undoSize] = positionKey;
+        undoPieces[2 * undoSize] = squares[square(capturedRow, colOf(to))];
+        undoPieces[2 * undoSize + 1] = squares[from];
+        undoSize++;
+        doMove(move);
+        // trial positions enter the key ring too, so repetition checks during a search see them
+        keyHistory[keyCount++ & HISTORY_MASK] = positionKey;
+    }
+
+    public void unmakeMove() {
+        int i = --undoSize;
+        keyCount--;
+        int move = undoMoves[i];
+        long state = undoStates[i];
+        int captured = undoPieces[2 * i] - 1;
+        int moved = undoPieces[2 * i + 1] - 1;
+
+        int fromRow = rowOf(Move.from(move));
+        int fromCol = colOf(Move.from(move));
+        int toRow = rowOf(Move.to(move));
+        int toCol = colOf(Move.to(move));
+
+        if (Move.isEnPassant(move)) {
+            placePiece(toRow, toCol, -1);
+            placePiece(fromRow, toCol, captured);
+        } else {
+            placePiece(toRow, toCol, captured);
+        }
+        placePiece(fromRow, fromCol, moved);
+        if (Move.isCastling(move)) {
+            int rookCol = toCol > fromCol ? 7 : 0;
+            int rookDestCol = toCol > fromCol ? 5 : 3;
+            placePiece(fromRow, rookCol, indexAt(square(fromRow, rookDestCol)));
+            placePiece(fromRow, rookDestCol, -1);
+        }
+
+        castlingRights = (int) (state & 0xF);
+        enPassantSquare = (int) ((state >>> 4) & 0x7F) - 1;
+        halfMoveClock = (int) ((state >>> 11) & 0xFFFF);
+        fullMoveNumber = (int) (state >>> 27);
+        sideToMove ^= 1;
+        positionKey = undoKeys[i];
+    }
+
+    // packs a board move, inferring castling and en passant from the pieces involved
+    public int encodeMove(int fromRow, int fromCol, int toRow, int toCol, String promotionChoice) {
+        int type = indexAt(square(fromRow, fromCol)) % 6;
+        int flags = 0;
+        int promotion = 0;
+        if (type == KING && fromRow == toRow && Math.abs(toCol - fromCol) == 2) {
+            flags = Move.FLAG_CASTLING;
+        } else if (type == PAWN) {
+            if (fromCol != toCol && squares[square(toRow, toCol)] == 0) {
+                flags = Move.FLAG_EN_PASSANT;
+            }
+            if (toRow == 0 || toRow == 7) {
+                promotion = Move.promotionTypeOf(promotionChoice);
+            }
+        }
+        return Move.of(square(fromRow, fromCol), square(toRow, toCol), promotion, flags);
+    }
+
+    private void recordPosition() {
+        keyHistory[keyCount++ & HISTORY_MASK] = positionKey;
+        if (verifyAttackMaps && !attackMapsConsistent()) {
+            throw new IllegalStateException("Incremental attack maps diverged after move " + moveCount
+                    + ": " + toFEN());
+        }
+    }
+
+    private void recordMove(int move, int side, boolean capture) {
+        moveHistory[moveCount++ & HISTORY_MASK] = move
+                | (capture ? HISTORY_CAPTURE : 0) | (side == BLACK ? HISTORY_BLACK : 0);
     }
 
     public Piece getPieceAt(int row, int col) {
         if (row < 0 || row >= 8 || col < 0 || col >= 8) {
             return null;
         }
-        return board[row][col];
+        int index = squares[square(row, col)] - 1;
+        return index < 0 ? null : Piece.of(index);
+    }
+
+    public Piece getPieceAt(int square) {
+        int index = squares[square] - 1;
+        return index < 0 ? null : Piece.of(index);
     }
 
     public Piece getPieceAt(String position) {
@@ -96,13 +756,13 @@ public class Board {
         return getPieceAt(row, col);
     }
 
-    public boolean isWhiteKingMoved() { return whiteKingMoved; }
-    public boolean isBlackKingMoved() { return blackKingMoved; }
+    public boolean isWhiteKingMoved() { return (castlingRights & (WHITE_KINGSIDE | WHITE_QUEENSIDE)) == 0; }
+    public boolean isBlackKingMoved() { return (castlingRights & (BLACK_KINGSIDE | BLACK_QUEENSIDE)) == 0; }
     public boolean isWhiteRookMoved(boolean kingside) {
-        return whiteRooksMoved[kingside ? 1 : 0];
+        return (castlingRights & (kingside ? WHITE_KINGSIDE : WHITE_QUEENSIDE)) == 0;
     }
     public boolean isBlackRookMoved(boolean kingside) {
-        return blackRooksMoved[kingside ? 1 : 0];
+        return (castlingRights & (kingside ? BLACK_KINGSIDE : BLACK_QUEENSIDE)) == 0;
     }
 
     public boolean tryMove(String from, String to, String promotionChoice) {
@@ -110,42 +770,42 @@ public class Board {
         int fromCol = from.charAt(0) - 'a';
         int toRow = 8 - Character.getNumericValue(to.charAt(1));
         int toCol = to.charAt(0) - 'a';
+        if (getPieceAt(fromRow, fromCol) == null) {
+            return false;
+        }
+        return tryMove(encodeMove(fromRow, fromCol, toRow, toCol, promotionChoice));
+    }
+
+    // validates and plays a packed move for the side to move; promotions default to a queen
+    public boolean tryMove(int move) {
+        int fromRow = rowOf(Move.from(move));
+        int fromCol = colOf(Move.from(move));
+        int toRow = rowOf(Move.to(move));
+        int toCol = colOf(Move.to(move));
 
         Piece piece = getPieceAt(fromRow, fromCol);
-        if (piece == null || !piece.getColor().equals(currentPlayer)) {
+        if (piece == null || piece.getSide() != sideToMove) {
             return false;
         }
 
         if (piece instanceof King && Math.abs(fromCol - toCol) == 2 && fromRow == toRow) {
-            return tryCastle(currentPlayer, toCol > fromCol);
+            return tryCastle(sideToMove, toCol > fromCol);
         }
-        if (!piece.isValidMove(toRow, toCol)) {
+        if (!piece.isValidMove(this, Move.from(move), Move.to(move))) {
             return false;
         }
 
-        if (piece instanceof Pawn && isEnPassantPossible(to)) {
+        if (piece instanceof Pawn && isEnPassantPossible(Move.to(move))) {
+            if (wouldLeaveKingInCheck(fromRow, fromCol, toRow, toCol)) {
+                return false;
+            }
             executeEnPassant(fromRow, fromCol, toRow, toCol);
             return true;
         }
 
-        if (piece instanceof Pawn) {
-            if ((piece.getColor().equals("white") && toRow == 7)) {
-                if (promotionChoice == null) promotionChoice = "Q";
-                promotePawn(toRow, toCol, promotionChoice);
-                executeMove(fromRow, fromCol, toRow, toCol, null);
-                return true;
-            }
-            if ((piece.getColor().equals("black") && toRow == 0)) {
-                if (promotionChoice == null) promotionChoice = "Q";
-                promotePawn(toRow, toCol, promotionChoice);
-                executeMove(fromRow, fromCol, toRow, toCol, null);
-                return true;
-            }
-        }
-
         Piece targetPiece = getPieceAt(toRow, toCol);
         if (!(piece instanceof Pawn) && targetPiece != null &&
-                targetPiece.getColor().equals(currentPlayer)) {
+                targetPiece.getSide() == sideToMove) {
             return false;
         }
 
@@ -159,133 +819,276 @@ public class Board {
             return false;
         }
 
-        executeMove(fromRow, fromCol, toRow, toCol, null);
+        if (piece instanceof Pawn && (toRow == 0 || toRow == 7) && Move.promotionType(move) == 0) {
+            move = Move.of(Move.from(move), Move.to(move), QUEEN, 0);
+        }
+        executeMove(move);
         return true;
     }
 
     private boolean wouldLeaveKingInCheck(int fromRow, int fromCol, int toRow, int toCol) {
-        Piece movingPiece = board[fromRow][fromCol];
-        Piece capturedPiece = board[toRow][toCol];
+        return leavesKingInCheck(encodeMove(fromRow, fromCol, toRow, toCol, null));
+    }
 
-        board[toRow][toCol] = movingPiece;
-        board[fromRow][fromCol] = null;
-        movingPiece.setPosition(toRow, toCol);
+    // whether a pseudo-legal move exposes the mover's king, answered from the pin and check masks
+    public boolean leavesKingInCheck(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int side = indexAt(from) / 6;
+        int king = kingSquares[side];
+        if (king < 0) {
+            return false;
+        }
+        computeCheckInfo(side);
 
-        boolean inCheck = isKingInCheck(movingPiece.getColor());
+        if (from == king) {
+            long occupied = (colorMasks[WHITE] | colorMasks[BLACK]) ^ bit(from);
+            return attackersTo(to, side ^ 1, occupied) != 0;
+        }
+        if (Move.isEnPassant(move)) {
+            return !isEnPassantSafe(from, to, side);
+        }
+        if ((checkMask & bit(to)) == 0) {
+            return true;
+        }
+        return (pinned & bit(from)) != 0 && (Attacks.line(king, from) & bit(to)) == 0;
+    }
 
-        board[fromRow][fromCol] = movingPiece;
-        board[toRow][toCol] = capturedPiece;
-        movingPiece.setPosition(fromRow, fromCol);
+    // whether a legal move checks the opponent's king, answered without touching the board: the moved
+    // (or promoted, or castling) piece's attacks from its new square, plus sliders behind a vacated square
+    public boolean givesCheck(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int moving = indexAt(from);
+        if (moving < 0) {
+            return false;
+        }
+        int us = moving / 6;
+        int king = kingSquares[us ^ 1];
+        if (king < 0) {
+            return false;
+        }
+        long kingBit = bit(king);
+        long occupied = ((colorMasks[WHITE] | colorMasks[BLACK]) & ~bit(from)) | bit(to);
+        long own = colorMasks[us] & ~bit(from);
+        long vacated = bit(from);
+
+        if (Move.isCastling(move)) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            occupied = (occupied & ~bit(rookFrom)) | bit(rookTo);
+            if ((Attacks.rook(rookTo, occupied) & kingBit) != 0) {
+                return true;
+            }
+            own &= ~bit(rookFrom);
+            vacated |= bit(rookFrom);
+        } else {
+            int placed = Move.promotionType(move) != 0 ? pieceIndex(us, Move.promotionType(move)) : moving;
+            if ((attacksOf(placed, to, occupied) & kingBit) != 0) {
+                return true;
+            }
+            if (Move.isEnPassant(move)) {
+                int captured = square(rowOf(from), colOf(to));
+                occupied &= ~bit(captured);
+                vacated |= bit(captured);
+            }
+        }
 
-        return inCheck;
+        // a discovered check needs a vacated square on a line through the king
+        long aligned = 0L;
+        for (long rest = vacated; rest != 0; rest &= rest - 1) {
+            aligned |= Attacks.line(king, Long.numberOfTrailingZeros(rest));
+        }
+        if (aligned == 0) {
+            return false;
+        }
+        int base = us * 6;
+        long rooksQueens = (pieceMasks[base + ROOK] | pieceMasks[base + QUEEN]) & own;
+        long bishopsQueens = (pieceMasks[base + BISHOP] | pieceMasks[base + QUEEN]) & own;
+        return ((Attacks.rook(king, occupied) & rooksQueens) | (Attacks.bishop(king, occupied) & bishopsQueens)) != 0;
     }
 
-    private void executeMove(int fromRow, int fromCol, int toRow, int toCol, String promotionChoice) {
-        Piece piece = board[fromRow][fromCol];
-        Piece captured = board[toRow][toCol];
+    public long getCheckers(String color) {
+        computeCheckInfo(sideOf(color));
+        return checkers;
+    }
 
-        updateCastlingStatus(piece, fromRow, fromCol);
+    public long getPinnedPieces(String color) {
+        computeCheckInfo(sideOf(color));
+        return pinned;
+    }
 
-        if (piece instanceof Pawn && (toRow == 0 || toRow == 7)) {
-            promotePawn(toRow, toCol, promotionChoice);
-            piece = board[toRow][toCol];
-        } else {
-            board[toRow][toCol] = piece;
-            piece.setPosition(toRow, toCol);
+    private void computeCheckInfo(int side) {
+        if (checkInfoSide == side && checkInfoKey == positionKey) {
+            return;
         }
-
-        if (captured != null || piece instanceof Pawn) {
-            halfMoveClock = 0;
-        } else {
-            halfMoveClock++;
+        checkInfoSide = side;
+        checkInfoKey = positionKey;
+        checkers = 0L;
+        pinned = 0L;
+        checkMask = ~0L;
+        int king = kingSquares[side];
+        if (king < 0) {
+            return;
         }
 
-        if (piece instanceof Pawn && Math.abs(fromRow - toRow) == 2) {
-            int epRow = piece.getColor().equals("white") ? toRow + 1 : toRow - 1;
-            enPassantTarget = "" + (char)('a' + toCol) + (8 - epRow);
-        } else {
-            enPassantTarget = null;
+        int them = side ^ 1;
+        long occupied = colorMasks[WHITE] | colorMasks[BLACK];
+        checkers = attackersOf[king] & colorMasks[them];
+        if (checkers != 0) {
+            // a single check can be captured or blocked; a double check leaves only king moves
+            checkMask = (checkers & (checkers - 1)) != 0
+                    ? 0L
+                    : checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
         }
 
-        if (currentPlayer.equals("black")) {
-            fullMoveNumber++;
+        long rooksQueens = pieceMasks[pieceIndex(them, ROOK)] | pieceMasks[pieceIndex(them, QUEEN)];
+        long bishopsQueens = pieceMasks[pieceIndex(them, BISHOP)] | pieceMasks[pieceIndex(them, QUEEN)];
+        long snipers = (Attacks.rook(king, 0L) & rooksQueens) | (Attacks.bishop(king, 0L) & bishopsQueens);
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & colorMasks[side]) != 0) {
+                pinned |= blockers;
+            }
         }
+    }
 
-        String fen = toFEN();
-        positionCounts.put(fen, positionCounts.getOrDefault(fen, 0) + 1);
-
-        moveHistory.add(currentPlayer + ": " + positionToNotation(fromRow, fromCol) +
-                (captured != null ? "x" : "-") + positionToNotation(toRow, toCol));
-        currentPlayer = currentPlayer.equals("white") ? "black" : "white";
+    // en passant removes two pawns from one rank, which can uncover a slider no pin mask sees
+    private boolean isEnPassantSafe(int from, int to, int side) {
+        int king = kingSquares[side];
+        if (king < 0) {
+            return true;
+        }
+        int captured = square(rowOf(from), colOf(to));
+        long occupied = ((colorMasks[WHITE] | colorMasks[BLACK]) ^ bit(from) ^ bit(captured)) | bit(to);
+        return (attackersTo(king, side ^ 1, occupied) & ~bit(captured)) == 0;
     }
 
-    public King getKing(String color) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board[row][col];
-                if (piece instanceof King && piece.getColor().equals(color)) {
-                    return (King) piece;
+    private long legalTargets(int from, int side) {
+        long targets = pseudoTargets(from, side);
+        int king = kingSquares[side];
+        if (king < 0) {
+            return targets;
+        }
+        computeCheckInfo(side);
+
+        if (from == king) {
+            long occupied = (colorMasks[WHITE] | colorMasks[BLACK]) ^ bit(from);
+            long safe = 0L;
+            for (; targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                if (attackersTo(to, side ^ 1, occupied) == 0) {
+                    safe |= bit(to);
                 }
             }
+            return safe;
         }
-        return null;
+
+        long enPassant = 0L;
+        if (enPassantSquare >= 0 && (targets & bit(enPassantSquare)) != 0
+                && (pieceMasks[pieceIndex(side, PAWN)] & bit(from)) != 0) {
+            targets &= ~bit(enPassantSquare);
+            if (isEnPassantSafe(from, enPassantSquare, side)) {
+                enPassant = bit(enPassantSquare);
+            }
+        }
+        targets &= checkMask;
+        if ((pinned & bit(from)) != 0) {
+            targets &= Attacks.line(king, from);
+        }
+        return targets | enPassant;
+    }
+
+    private void executeMove(int move) {
+        recordMove(move, sideToMove, squares[Move.to(move)] != 0);
+        doMove(move);
+        recordPosition();
+    }
+
+    public King getKing(String color) {
+        int square = kingSquares[sideOf(color)];
+        if (square < 0) return null;
+        return (King) Piece.of(sideOf(color), KING);
+    }
+
+    public int getKingSquare(String color) {
+        return kingSquares[sideOf(color)];
+    }
+
+    public int getPieceCount(String color, Class<? extends Piece> type) {
+        int side = sideOf(color);
+        if (type == Pawn.class) return pieceCounts[pieceIndex(side, PAWN)];
+        if (type == Knight.class) return pieceCounts[pieceIndex(side, KNIGHT)];
+        if (type == Bishop.class) return pieceCounts[pieceIndex(side, BISHOP)];
+        if (type == Rook.class) return pieceCounts[pieceIndex(side, ROOK)];
+        if (type == Queen.class) return pieceCounts[pieceIndex(side, QUEEN)];
+        return pieceCounts[pieceIndex(side, KING)];
     }
 
     public boolean isEnPassantPossible(String targetSquare) {
-        if (enPassantTarget == null || !enPassantTarget.equals(targetSquare)) {
+        if (targetSquare == null || targetSquare.length() != 2) {
+            return false;
+        }
+        return isEnPassantPossible(square(8 - Character.getNumericValue(targetSquare.charAt(1)),
+                targetSquare.charAt(0) - 'a'));
+    }
+
+    public boolean isEnPassantPossible(int targetSquare) {
+        if (enPassantSquare < 0 || enPassantSquare != targetSquare) {
             return false;
         }
 
-        int row = 8 - Character.getNumericValue(targetSquare.charAt(1));
-        int col = targetSquare.charAt(0) - 'a';
+        int row = rowOf(targetSquare);
+        int col = colOf(targetSquare);
 
-        if (currentPlayer.equals("white") && row == 2) {
+        if (sideToMove == WHITE && row == 2) {
             Piece leftPawn = col > 0 ? getPieceAt(3, col-1) : null;
             Piece rightPawn = col < 7 ? getPieceAt(3, col+1) : null;
-            return (leftPawn instanceof Pawn && leftPawn.getColor().equals("white")) ||
-                    (rightPawn instanceof Pawn && rightPawn.getColor().equals("white"));
+            return (leftPawn instanceof Pawn && leftPawn.getSide() == WHITE) ||
+                    (rightPawn instanceof Pawn && rightPawn.getSide() == WHITE);
         }
 
-        if (currentPlayer.equals("black") && row == 5) {
+        if (sideToMove == BLACK && row == 5) {
             Piece leftPawn = col > 0 ? getPieceAt(4, col-1) : null;
             Piece rightPawn = col < 7 ? getPieceAt(4, col+1) : null;
-            return (leftPawn instanceof Pawn && leftPawn.getColor().equals("black")) ||
-                    (rightPawn instanceof Pawn && rightPawn.getColor().equals("black"));
+            return (leftPawn instanceof Pawn && leftPawn.getSide() == BLACK) ||
+                    (rightPawn instanceof Pawn && rightPawn.getSide() == BLACK);
         }
 
         return false;
     }
 
     private void executeEnPassant(int fromRow, int fromCol, int toRow, int toCol) {
-        Piece pawn = board[fromRow][fromCol];
-        board[toRow][toCol] = pawn;
-        board[fromRow][fromCol] = null;
-
-        int capturedPawnRow = fromRow;
-        int capturedPawnCol = toCol;
-        board[capturedPawnRow][capturedPawnCol] = null;
-
-        pawn.setPosition(toRow, toCol);
-        enPassantTarget = null;
-        moveHistory.add(currentPlayer + ": " + positionToNotation(fromRow, fromCol) +
-                "x" + positionToNotation(toRow, toCol) + " e.p.");
-        currentPlayer = currentPlayer.equals("white") ? "black" : "white";
+        int move = Move.of(square(fromRow, fromCol), square(toRow, toCol), 0, Move.FLAG_EN_PASSANT);
+        recordMove(move, sideToMove, true);
+        doMove(move);
+        recordPosition();
     }
 
     public boolean tryCastle(String color, boolean kingside) {
-        int row = color.equals("white") ? 7 : 0;
+        return tryCastle(sideOf(color), kingside);
+    }
+
+    private boolean tryCastle(int side, boolean kingside) {
+        int row = side == WHITE ? 7 : 0;
         int kingCol = 4;
         int rookCol = kingside ? 7 : 0;
         int kingDestCol = kingside ? 6 : 2;
-        int rookDestCol = kingside ? 5 : 3;
+
+        int right = side == WHITE
+                ? (kingside ? WHITE_KINGSIDE : WHITE_QUEENSIDE)
+                : (kingside ? BLACK_KINGSIDE : BLACK_QUEENSIDE);
+        if ((castlingRights & right) == 0) {
+            return false;
+        }
 
         Piece king = getPieceAt(row, kingCol);
-        if (!(king instanceof King) || !king.getColor().equals(color)) {
+        if (!(king instanceof King) || king.getSide() != side) {
             return false;
         }
 
         Piece rook = getPieceAt(row, rookCol);
-        if (!(rook instanceof Rook) || !rook.getColor().equals(color)) {
+        if (!(rook instanceof Rook) || rook.getSide() != side) {
             return false;
         }
 
@@ -296,106 +1099,53 @@ public class Board {
             }
         }
 
-        if (isSquareUnderAttack(row, kingCol, color.equals("white") ? "black" : "white")) {
+        if (isSquareAttacked(square(row, kingCol), side ^ 1)) {
             return false;
         }
 
         for (int col = kingCol; col != kingDestCol; col += step) {
-            if (col != kingCol && isSquareUnderAttack(row, col, color.equals("white") ? "black" : "white")) {
+            if (col != kingCol && isSquareAttacked(square(row, col), side ^ 1)) {
                 return false;
             }
         }
 
-        if (isSquareUnderAttack(row, kingDestCol, color.equals("white") ? "black" : "white")) {
+        if (isSquareAttacked(square(row, kingDestCol), side ^ 1)) {
             return false;
         }
 
-        performCastling(row, kingCol, rookCol, kingDestCol, rookDestCol, color, kingside);
+        performCastling(row, kingCol, rookCol, kingDestCol, side, kingside);
         return true;
     }
 
-    private void performCastling(int row, int kingCol, int rookCol,
-                                 int kingDestCol, int rookDestCol,
-                                 String color, boolean kingside) {
-        Piece rook = getPieceAt(row, rookCol);
-        board[row][rookDestCol] = rook;
-        board[row][rookCol] = null;
-        rook.setPosition(row, rookDestCol);
-        if (rook instanceof Rook) {
-            ((Rook)rook).setHasMoved(true);
-        }
-
-        Piece king = getPieceAt(row, kingCol);
-        board[row][kingDestCol] = king;
-        board[row][kingCol] = null;
-        king.setPosition(row, kingDestCol);
-        if (king instanceof King) {
-            ((King)king).setHasMoved(true);
-        }
-
-        if (color.equals("white")) {
-            whiteKingMoved = true;
-            if (kingside) whiteRooksMoved[1] = true;
-            else whiteRooksMoved[0] = true;
-        } else {
-            blackKingMoved = true;
-            if (kingside) blackRooksMoved[1] = true;
-            else blackRooksMoved[0] = true;
-        }
-
-        currentPlayer = currentPlayer.equals("white") ? "black" : "white";
-        moveHistory.add(color + ": " + (kingside ? "O-O" : "O-O-O"));
+    private void performCastling(int row, int kingCol, int rookCol, int kingDestCol,
+                                 int side, boolean kingside) {
+        int move = Move.of(square(row, kingCol), square(row, kingDestCol), 0, Move.FLAG_CASTLING);
+        recordMove(move, side, false);
+        doMove(move);
+        recordPosition();
     }
 
     public void promotePawn(int row, int col, String promotionChoice) {
-        String color = board[row][col].getColor();
-        board[row][col] = switch (promotionChoice != null ? promotionChoice.toUpperCase() : "Q") {
-            case "R" -> new Rook(color, row, col, this);
-            case "N" -> new Knight(color, row, col, this);
-            case "B" -> new Bishop(color, row, col, this);
-            default -> new Queen(color, row, col, this);
-        };
-    }
-
-    private void updateCastlingStatus(Piece piece, int row, int col) {
-        if (piece instanceof King) {
-            if (piece.getColor().equals("white")) {
-                whiteKingMoved = true;
-            } else {
-                blackKingMoved = true;
-            }
-        } else if (piece instanceof Rook) {
-            if (piece.getColor().equals("white")) {
-                if (row == 7 && col == 0) whiteRooksMoved[0] = true;
-                if (row == 7 && col == 7) whiteRooksMoved[1] = true;
-            } else {
-                if (row == 0 && col == 0) blackRooksMoved[0] = true;
-                if (row == 0 && col == 7) blackRooksMoved[1] = true;
-            }
-        }
+        int side = indexAt(square(row, col)) / 6;
+        placePiece(row, col, pieceIndex(side, Move.promotionTypeOf(promotionChoice)));
     }
 
     public boolean isPathClear(int fromRow, int fromCol, int toRow, int toCol) {
-        Piece piece = board[fromRow][fromCol];
-        if (piece instanceof Knight) {
+        int from = square(fromRow, fromCol);
+        if (indexAt(from) % 6 == KNIGHT) {
             return true;
         }
+        return isPathClear(from, square(toRow, toCol));
+    }
 
-        int rowStep = Integer.compare(toRow, fromRow);
-        int colStep = Integer.compare(toCol, fromCol);
-
-        int currentRow = fromRow + rowStep;
-        int currentCol = fromCol + colStep;
-
-        while (currentRow != toRow || currentCol != toCol) {
-            if (board[currentRow][currentCol] != null) {
-                return false;
-            }
-            currentRow += rowStep;
-            currentCol += colStep;
-        }
+    // the squares are on one rank, file or diagonal with nothing standing between them
+    public boolean isPathClear(int from, int to) {
+        return Attacks.line(from, to) != 0
+                && (Attacks.between(from, to) & (colorMasks[WHITE] | colorMasks[BLACK])) == 0;
+    }
 
-        return true;
+    static int castlingMask(int square) {
+        return CASTLING_MASK[square];
     }
 
     private String positionToNotation(int row, int col) {
@@ -407,7 +1157,7 @@ public class Board {
         for (int i = 0; i < 8; i++) {
             System.out.print((8 - i) + " ");
             for (int j = 0; j < 8; j++) {
-                Piece piece = board[i][j];
+                Piece piece = getPieceAt(i, j);
                 System.out.print(piece == null ? ". " : piece.getSymbol() + " ");
             }
             System.out.println(8 - i);
@@ -415,348 +1165,311 @@ public class Board {
         System.out.println("  a b c d e f g h");
     }
 
-    public String getEnPassantTarget() { return enPassantTarget; }
-    public String getCurrentPlayer() { return currentPlayer; }
-    public List<String> getMoveHistory() { return new ArrayList<>(moveHistory); }
+    public int getEnPassantSquare() { return enPassantSquare; }
+    public int getHalfMoveClock() { return halfMoveClock; }
+    public int getFullMoveNumber() { return fullMoveNumber; }
+    public String getEnPassantTarget() {
+        return enPassantSquare < 0 ? null : positionToNotation(rowOf(enPassantSquare), colOf(enPassantSquare));
+    }
+    public String getCurrentPlayer() { return colorName(sideToMove); }
+    public int getSideToMove() { return sideToMove; }
+
+    // the most recent moves, at most HISTORY_SIZE of them, formatted as "white: e2-e4"
+    public List<String> getMoveHistory() {
+        int first = Math.max(0, moveCount - HISTORY_SIZE);
+        List<String> moves = new ArrayList<>(moveCount - first);
+        for (int i = first; i < moveCount; i++) {
+            int move = moveHistory[i & HISTORY_MASK];
+            String player = colorName((move & HISTORY_BLACK) != 0 ? BLACK : WHITE);
+            int from = Move.from(move);
+            int to = Move.to(move);
+            if (Move.isCastling(move)) {
+                moves.add(player + ": " + (to > from ? "O-O" : "O-O-O"));
+            } else {
+                moves.add(player + ": " + positionToNotation(rowOf(from), colOf(from))
+                        + ((move & HISTORY_CAPTURE) != 0 ? "x" : "-") + positionToNotation(rowOf(to), colOf(to))
+                        + (Move.isEnPassant(move) ? " e.p." : ""));
+            }
+        }
+        return moves;
+    }
 
-    public boolean isSquareUnderAttack(int row, int col, String opponentColor) {
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece piece = getPieceAt(r, c);
-                if (piece != null && piece.getColor().equals(opponentColor) && piece.isValidMove(row, col)) {
-                    return true;
-                }
+    // occurrences of the current position with the same side to move, counting back only to the last
+    // capture or pawn move, since no earlier position can repeat
+    public int getRepetitionCount() {
+        int reach = Math.min(Math.min(halfMoveClock, keyCount - 1), HISTORY_SIZE - 1);
+        int count = 0;
+        for (int back = 0; back <= reach; back += 2) {
+            if (keyHistory[(keyCount - 1 - back) & HISTORY_MASK] == positionKey) {
+                count++;
             }
         }
-        return false;
+        return count;
+    }
+
+    public boolean isSquareUnderAttack(int row, int col, String opponentColor) {
+        return isSquareAttacked(square(row, col), sideOf(opponentColor));
+    }
+
+    public boolean isSquareUnderAttack(int row, int col, int opponentSide) {
+        return isSquareAttacked(square(row, col), opponentSide);
+    }
+
+    private boolean isSquareAttacked(int square, int bySide) {
+        return (attackersOf[square] & colorMasks[bySide]) != 0;
+    }
+
+    // all pieces of the given side that attack the square, with sliders blocked by the occupancy mask
+    private long attackersTo(int square, int side, long occupied) {
+        int base = side * 6;
+        long rooksQueens = pieceMasks[base + ROOK] | pieceMasks[base + QUEEN];
+        long bishopsQueens = pieceMasks[base + BISHOP] | pieceMasks[base + QUEEN];
+        return (Attacks.pawn(side ^ 1, square) & pieceMasks[base + PAWN])
+                | (Attacks.knight(square) & pieceMasks[base + KNIGHT])
+                | (Attacks.king(square) & pieceMasks[base + KING])
+                | (Attacks.rook(square, occupied) & rooksQueens)
+                | (Attacks.bishop(square, occupied) & bishopsQueens);
     }
 
     public boolean isDraw() {
-        if (!isKingInCheck(currentPlayer) && !hasLegalMoves(currentPlayer)) {
-            return true;
-        }
+        return status().isDraw();
+    }
 
+    // check, mate and draw flags for the side to move, from a single legal-move sweep; repeated calls
+    // in the same position return the cached result
+    public GameStatus status() {
+        if (cachedStatus != null && statusKey == positionKey && statusKeyCount == keyCount
+                && statusHalfMove == halfMoveClock) {
+            return cachedStatus;
+        }
+        int flags = 0;
+        boolean check = isKingInCheck(sideToMove);
+        if (check) {
+            flags |= GameStatus.CHECK;
+        }
+        if (!hasLegalMoves(sideToMove)) {
+            flags |= check ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        }
         if (isInsufficientMaterial()) {
-            return true;
+            flags |= GameStatus.INSUFFICIENT_MATERIAL;
         }
-
-        if (halfMoveClock >= 50) {
-            return true;
+        if (halfMoveClock >= 100) {
+            flags |= GameStatus.FIFTY_MOVES;
         }
-
         if (isThreefoldRepetition()) {
-            return true;
+            flags |= GameStatus.REPETITION;
         }
+        cachedStatus = GameStatus.of(sideToMove, flags);
+        statusKey = positionKey;
+        statusKeyCount = keyCount;
+        statusHalfMove = halfMoveClock;
+        return cachedStatus;
+    }
 
-        if (isDeadPosition()) {
-            return true;
-        }
+    public boolean isThreefoldRepetition() {
+        return getRepetitionCount() >= 3;
+    }
 
-        return false;
+    private boolean hasLegalMoves(int side) {
+        generateLegalMoves(side, scratchMoves);
+        return !scratchMoves.isEmpty();
     }
 
-    public boolean isThreefoldRepetition() {
-        String currentPosition = toFEN();
+    // legal moves for the side to move, written into the caller's buffer
+    public void generateLegalMoves(MoveList out) {
+        generateLegalMoves(sideToMove, out);
+    }
 
-        int count = 0;
-        for (int i = moveHistory.size() - 1; i >= 0; i--) {
-            String move = moveHistory.get(i);
-            if (move.contains(":")) {
-                String position = move.split(":")[1].trim();
-                if (position.equals(currentPosition)) {
-                    count++;
-                    if (count >= 3) {
-                        return true;
-                    }
+    private void generateLegalMoves(int side, MoveList out) {
+        out.clear();
+        computeCheckInfo(side);
+        long pawns = pieceMasks[pieceIndex(side, PAWN)];
+        for (long pieces = colorMasks[side]; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            boolean pawn = (pawns & bit(from)) != 0;
+            for (long targets = legalTargets(from, side); targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                if (pawn && (rowOf(to) == 0 || rowOf(to) == 7)) {
+                    out.add(Move.of(from, to, QUEEN, 0));
+                    out.add(Move.of(from, to, ROOK, 0));
+                    out.add(Move.of(from, to, BISHOP, 0));
+                    out.add(Move.of(from, to, KNIGHT, 0));
+                } else if (pawn && to == enPassantSquare) {
+                    out.add(Move.of(from, to, 0, Move.FLAG_EN_PASSANT));
                 } else {
-                    break;
+                    out.add(Move.of(from, to));
                 }
             }
         }
 
-        for (int i = moveHistory.size() - 1; i >= 3; i--) {
-            String move1 = moveHistory.get(i);
-            String move2 = moveHistory.get(i - 1);
-            String move3 = moveHistory.get(i - 2);
-            if (move1.contains(":") && move2.contains(":") && move3.contains(":")) {
-                String position1 = move1.split(":")[1].trim();
-                String position2 = move2.split(":")[1].trim();
-                String position3 = move3.split(":")[1].trim();
-                if (position1.equals(currentPosition) && position2.equals(currentPosition) && position3.equals(currentPosition)) {
-                    return true;
-                }
+        int king = kingSquares[side];
+        if (king == square(side == WHITE ? 7 : 0, 4) && checkers == 0) {
+            if (isValidCastling(side, rowOf(king), 4, 6)) {
+                out.add(Move.of(king, king + 2, 0, Move.FLAG_CASTLING));
             }
-        }
-
-        return false;
-    }
-
-    private boolean isDeadPosition() {
-        Map<String, Integer> pieceCount = new HashMap<>();
-        pieceCount.put("white", 0);
-        pieceCount.put("black", 0);
-
-        boolean whiteHasBishopOrKnight = false;
-        boolean blackHasBishopOrKnight = false;
-        boolean whiteHasNonKing = false;
-        boolean blackHasNonKing = false;
-
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board[row][col];
-                if (piece != null) {
-                    String color = piece.getColor();
-                    pieceCount.put(color, pieceCount.get(color) + 1);
-
-                    if (!(piece instanceof King)) {
-                        if (color.equals("white")) {
-                            whiteHasNonKing = true;
-                            if (piece instanceof Bishop || piece instanceof Knight) {
-                                whiteHasBishopOrKnight = true;
-                            }
-                        } else {
-                            blackHasNonKing = true;
-                            if (piece instanceof Bishop || piece instanceof Knight) {
-                                blackHasBishopOrKnight = true;
-                            }
-                        }
-                    }
-                }
+            if (isValidCastling(side, rowOf(king), 4, 2)) {
+                out.add(Move.of(king, king - 2, 0, Move.FLAG_CASTLING));
             }
         }
+    }
 
-        if (pieceCount.get("white") == 1 && pieceCount.get("black") == 1) {
-            return true;
-        }
-
-        if ((pieceCount.get("white") == 2 && whiteHasBishopOrKnight && pieceCount.get("black") == 1) ||
-                (pieceCount.get("black") == 2 && blackHasBishopOrKnight && pieceCount.get("white") == 1)) {
-            return true;
-        }
-
-        if (pieceCount.get("white") == 2 && pieceCount.get("black") == 2 &&
-                whiteHasBishopOrKnight && blackHasBishopOrKnight) {
-
-            Bishop whiteBishop = null;
-            Bishop blackBishop = null;
-
-            for (int row = 0; row < 8; row++) {
-                for (int col = 0; col < 8; col++) {
-                    Piece piece = board[row][col];
-                    if (piece instanceof Bishop) {
-                        if (piece.getColor().equals("white")) {
-                            whiteBishop = (Bishop) piece;
-                        } else {
-                            blackBishop = (Bishop) piece;
-                        }
-                    }
+    // destination squares for the piece on the square, ignoring whether the own king is left in check
+    private long pseudoTargets(int from, int side) {
+        long own = colorMasks[side];
+        long enemy = colorMasks[side ^ 1];
+        long occupied = own | enemy;
+        int type = indexAt(from) % 6;
+
+        switch (type) {
+            case PAWN: {
+                long targets = Attacks.pawnPush(side, from) & ~occupied;
+                if (targets != 0) {
+                    targets |= Attacks.pawnDoublePush(side, from) & ~occupied;
                 }
-            }
-
-            if (whiteBishop != null && blackBishop != null) {
-                boolean whiteBishopOnWhite = (whiteBishop.getRow() + whiteBishop.getCol()) % 2 == 0;
-                boolean blackBishopOnWhite = (blackBishop.getRow() + blackBishop.getCol()) % 2 == 0;
-
-                if (whiteBishopOnWhite == blackBishopOnWhite) {
-                    return true;
+                long captures = enemy;
+                if (enPassantSquare >= 0 && sideToMove == side) {
+                    captures |= bit(enPassantSquare);
                 }
+                return targets | (Attacks.pawn(side, from) & captures);
             }
+            case KNIGHT:
+                return Attacks.knight(from) & ~own;
+            case BISHOP:
+                return Attacks.bishop(from, occupied) & ~own;
+            case ROOK:
+                return Attacks.rook(from, occupied) & ~own;
+            case QUEEN:
+                return Attacks.queen(from, occupied) & ~own;
+            default:
+                return Attacks.king(from) & ~own;
         }
-
-        return false;
     }
 
-    private boolean hasLegalMoves(String color) {
-        for (int fromRow = 0; fromRow < 8; fromRow++) {
-            for (int fromCol = 0; fromCol < 8; fromCol++) {
-                Piece piece = board[fromRow][fromCol];
-                if (piece != null && piece.getColor().equals(color)) {
-                    for (int toRow = 0; toRow < 8; toRow++) {
-                        for (int toCol = 0; toCol < 8; toCol++) {
-                            if (piece.isValidMove(toRow, toCol)) {
-                                if (piece instanceof Rook || piece instanceof Bishop || piece instanceof Queen) {
-                                    if (!isPathClear(fromRow, fromCol, toRow, toCol)) {
-                                        continue;
-                                    }
-                                }
-
-                                Piece target = board[toRow][toCol];
-
-                                board[toRow][toCol] = piece;
-                                board[fromRow][fromCol] = null;
-                                piece.setPosition(toRow, toCol);
-
-                                boolean isLegal = !isKingInCheck(color);
-
-                                board[fromRow][fromCol] = piece;
-                                board[toRow][toCol] = target;
-                                piece.setPosition(fromRow, fromCol);
-
-                                if (isLegal) {
-                                    return true;
-                                }
-                            }
-                        }
-                    }
-
-                    if (piece instanceof King && !((King)piece).hasMoved()) {
-                        if (isValidCastling(color, fromRow, fromCol, fromCol + 2)) {
-                            return true;
-                        }
-                        if (isValidCastling(color, fromRow, fromCol, fromCol - 2)) {
-                            return true;
-                        }
-                    }
-
-                    if (piece instanceof Pawn) {
-                        int direction = color.equals("white") ? -1 : 1;
-                        int enPassantRow = color.equals("white") ? 3 : 4;
-
-                        if (fromRow == enPassantRow) {
-                            if (fromCol > 0 && board[fromRow][fromCol - 1] instanceof Pawn &&
-                                    board[fromRow][fromCol - 1].getColor().equals(getOppositeColor(color)) &&
-                                    enPassantTarget != null && enPassantTarget.equals(positionToNotation(fromRow, fromCol - 1))) {
-
-                                Piece capturedPawn = board[fromRow][fromCol - 1];
-                                board[fromRow + direction][fromCol - 1] = piece;
-                                board[fromRow][fromCol] = null;
-                                board[fromRow][fromCol - 1] = null;
-                                piece.setPosition(fromRow + direction, fromCol - 1);
-
-                                boolean isLegal = !isKingInCheck(color);
-
-                                board[fromRow][fromCol] = piece;
-                                board[fromRow][fromCol - 1] = capturedPawn;
-                                board[fromRow + direction][fromCol - 1] = null;
-                                piece.setPosition(fromRow, fromCol);
-
-                                if (isLegal) {
-                                    return true;
-                                }
-                            }
-
-                            if (fromCol < 7 && board[fromRow][fromCol + 1] instanceof Pawn &&
-                                    board[fromRow][fromCol + 1].getColor().equals(getOppositeColor(color)) &&
-                                    enPassantTarget != null && enPassantTarget.equals(positionToNotation(fromRow, fromCol + 1))) {
-
-                                Piece capturedPawn = board[fromRow][fromCol + 1];
-                                board[fromRow + direction][fromCol + 1] = piece;
-                                board[fromRow][fromCol] = null;
-                                board[fromRow][fromCol + 1] = null;
-                                piece.setPosition(fromRow + direction, fromCol + 1);
-
-                                boolean isLegal = !isKingInCheck(color);
-
-                                board[fromRow][fromCol] = piece;
-                                board[fromRow][fromCol + 1] = capturedPawn;
-                                board[fromRow + direction][fromCol + 1] = null;
-                                piece.setPosition(fromRow, fromCol);
-
-                                if (isLegal) {
-                                    return true;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+    // bare kings, a lone minor piece against a bare king, or only bishops all standing on one square
+    // color: no sequence of legal moves can mate, so the game is drawn as soon as one of these appears
+    public boolean isInsufficientMaterial() {
+        if ((materialSignature & MATING_MATERIAL) != 0) {
+            return false;
         }
-        return false;
+        return DEAD_MINORS[minorsIndex(materialSignature, WHITE) | minorsIndex(materialSignature, BLACK) << 6];
     }
 
-    private String getOppositeColor(String color) {
-        return color.equals("white") ? "black" : "white";
+    public long getMaterialSignature() {
+        return materialSignature;
     }
 
-    private boolean isInsufficientMaterial() {
-        Map<String, Integer> pieceCount = new HashMap<>();
-        pieceCount.put("white", 0);
-        pieceCount.put("black", 0);
+    private static long materialUnit(int index, int square) {
+        int type = index % 6;
+        if (type == KING) {
+            return 0L;
+        }
+        int field = type == PAWN ? SIG_PAWN : type == KNIGHT ? SIG_KNIGHT
+                : type == BISHOP ? ((LIGHT_SQUARES & bit(square)) != 0 ? SIG_LIGHT_BISHOP : SIG_DARK_BISHOP)
+                : type == ROOK ? SIG_ROOK : SIG_QUEEN;
+        return 1L << ((index / 6) * 24 + field * 4);
+    }
 
-        boolean whiteHasBishopOrKnight = false;
-        boolean blackHasBishopOrKnight = false;
-        boolean whiteHasNonKing = false;
-        boolean blackHasNonKing = false;
+    // knight, light-bishop and dark-bishop counts of one side, each capped at 3, in six bits
+    private static int minorsIndex(long signature, int side) {
+        long minors = signature >>> (side * 24);
+        return Math.min((int) (minors >>> (SIG_KNIGHT * 4)) & 0xF, 3)
+                | Math.min((int) (minors >>> (SIG_LIGHT_BISHOP * 4)) & 0xF, 3) << 2
+                | Math.min((int) (minors >>> (SIG_DARK_BISHOP * 4)) & 0xF, 3) << 4;
+    }
 
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board[row][col];
-                if (piece != null) {
-                    String color = piece.getColor();
-                    pieceCount.put(color, pieceCount.get(color) + 1);
-
-                    if (!(piece instanceof King)) {
-                        if (color.equals("white")) {
-                            whiteHasNonKing = true;
-                            if (piece instanceof Bishop || piece instanceof Knight) {
-                                whiteHasBishopOrKnight = true;
-                            }
-                        } else {
-                            blackHasNonKing = true;
-                            if (piece instanceof Bishop || piece instanceof Knight) {
-                                blackHasBishopOrKnight = true;
-                            }
-                        }
-                    }
-                }
-            }
+    public String toFEN() {
+        if (cachedFEN != null && cachedFENKey == positionKey
+                && cachedFENHalfMove == halfMoveClock && cachedFENFullMove == fullMoveNumber) {
+            return cachedFEN;
         }
-        return false;
+        fenBuffer.setLength(0);
+        appendFEN(fenBuffer);
+        cachedFEN = fenBuffer.toString();
+        cachedFENKey = positionKey;
+        cachedFENHalfMove = halfMoveClock;
+        cachedFENFullMove = fullMoveNumber;
+        return cachedFEN;
     }
 
-    public String toFEN() {
-        StringBuilder fen = new StringBuilder();
+    public void appendFEN(StringBuilder out) {
+        try {
+            appendFEN((Appendable) out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
+    // writes the FEN straight to the output; only ranks changed since the last call are re-encoded
+    public void appendFEN(Appendable out) throws IOException {
         for (int row = 0; row < 8; row++) {
-            int emptyCount = 0;
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board[row][col];
-                if (piece == null) {
-                    emptyCount++;
-                } else {
-                    if (emptyCount > 0) {
-                        fen.append(emptyCount);
-                        emptyCount = 0;
-                    }
-                    fen.append(piece.getFENSymbol());
-                }
+            if ((dirtyRanks & (1 << row)) != 0) {
+                encodeRank(row);
             }
-            if (emptyCount > 0) {
-                fen.append(emptyCount);
+            for (int i = row * 8, end = i + rankLength[row]; i < end; i++) {
+                out.append(rankText[i]);
             }
             if (row < 7) {
-                fen.append("/");
+                out.append('/');
             }
         }
+        dirtyRanks = 0;
 
-        fen.append(" ").append(currentPlayer.equals("white") ? "w" : "b");
-
-        StringBuilder castling = new StringBuilder();
-        if (!whiteKingMoved) {
-            if (!whiteRooksMoved[1]) castling.append("K");
-            if (!whiteRooksMoved[0]) castling.append("Q");
+        out.append(' ').append(sideToMove == WHITE ? 'w' : 'b').append(' ');
+        if (castlingRights == 0) {
+            out.append('-');
+        } else {
+            if ((castlingRights & WHITE_KINGSIDE) != 0) out.append('K');
+            if ((castlingRights & WHITE_QUEENSIDE) != 0) out.append('Q');
+            if ((castlingRights & BLACK_KINGSIDE) != 0) out.append('k');
+            if ((castlingRights & BLACK_QUEENSIDE) != 0) out.append('q');
         }
-        if (!blackKingMoved) {
-            if (!blackRooksMoved[1]) castling.append("k");
-            if (!blackRooksMoved[0]) castling.append("q");
+        out.append(' ');
+        if (enPassantSquare < 0) {
+            out.append('-');
+        } else {
+            out.append((char) ('a' + colOf(enPassantSquare))).append((char) ('8' - rowOf(enPassantSquare)));
         }
-        fen.append(" ").append(castling.length() > 0 ? castling.toString() : "-");
-
-        fen.append(" ").append(enPassantTarget != null ? enPassantTarget : "-");
-
-        fen.append(" ").append(halfMoveClock);
+        out.append(' ');
+        appendNumber(out, halfMoveClock);
+        out.append(' ');
+        appendNumber(out, fullMoveNumber);
+    }
 
-        fen.append(" ").append(fullMoveNumber);
+    private void encodeRank(int row) {
+        int base = row * 8;
+        int length = 0;
+        int emptyCount = 0;
+        for (int col = 0; col < 8; col++) {
+            int index = squares[base + col] - 1;
+            if (index < 0) {
+                emptyCount++;
+                continue;
+            }
+            if (emptyCount > 0) {
+                rankText[base + length++] = (char) ('0' + emptyCount);
+                emptyCount = 0;
+            }
+            rankText[base + length++] = FEN_SYMBOLS.charAt(index);
+        }
+        if (emptyCount > 0) {
+            rankText[base + length++] = (char) ('0' + emptyCount);
+        }
+        rankLength[row] = length;
+    }
 
-        return fen.toString();
+    private static void appendNumber(Appendable out, int value) throws IOException {
+        if (value >= 10) {
+            appendNumber(out, value / 10);
+        }
+        out.append((char) ('0' + value % 10));
     }
 
     public boolean isResignation(String color) {
-        return color.equals("white") ? whiteResigned : blackResigned;
+        return sideOf(color) == WHITE ? whiteResigned : blackResigned;
     }
 
     public void setResignation(String color) {
-        if (color.equals("white")) {
+        if (sideOf(color) == WHITE) {
             whiteResigned = true;
         } else {
             blackResigned = true;
@@ -764,41 +1477,52 @@ public class Board {
     }
 
     public boolean isKingInCheck(String color) {
-        King king = getKing(color);
-        if (king == null) return false;
+        return isKingInCheck(sideOf(color));
+    }
 
-        String opponentColor = color.equals("white") ? "black" : "white";
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = getPieceAt(row, col);
-                if (piece != null && piece.getColor().equals(opponentColor)) {
-                    if (piece.isValidMove(king.getRow(), king.getCol()) &&
-                            isPathClear(row, col, king.getRow(), king.getCol())) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+    public boolean isKingInCheck(int side) {
+        int king = kingSquares[side];
+        if (king < 0) return false;
+
+        return (attackersOf[king] & colorMasks[side ^ 1]) != 0;
     }
     public boolean isCheckmate(String color) {
-        if (!isKingInCheck(color)) return false;
-        return !hasLegalMoves(color);
+        int side = sideOf(color);
+        if (side == sideToMove) return status().isCheckmate();
+        if (!isKingInCheck(side)) return false;
+        return !hasLegalMoves(side);
     }
 
     public void setEnPassantTarget(String target) {
-        this.enPassantTarget = target;
+        setEnPassantSquare(target == null ? -1
+                : square(8 - Character.getNumericValue(target.charAt(1)), target.charAt(0) - 'a'));
+    }
+
+    private void setEnPassantSquare(int square) {
+        if (enPassantSquare >= 0) {
+            positionKey ^= Zobrist.EN_PASSANT_FILE[colOf(enPassantSquare)];
+        }
+        enPassantSquare = square;
+        if (square >= 0) {
+            positionKey ^= Zobrist.EN_PASSANT_FILE[colOf(square)];
+        }
     }
 
     public boolean isValidCastling(String color, int row, int fromCol, int toCol) {
+        return isValidCastling(sideOf(color), row, fromCol, toCol);
+    }
+
+    public boolean isValidCastling(int side, int row, int fromCol, int toCol) {
         int rookCol = toCol > fromCol ? 7 : 0;
         int step = toCol > fromCol ? 1 : -1;
 
         Piece king = getPieceAt(row, fromCol);
         Piece rook = getPieceAt(row, rookCol);
+        int right = side == WHITE
+                ? (toCol > fromCol ? WHITE_KINGSIDE : WHITE_QUEENSIDE)
+                : (toCol > fromCol ? BLACK_KINGSIDE : BLACK_QUEENSIDE);
 
-        if (!(king instanceof King) || !(rook instanceof Rook) ||
-                ((King)king).hasMoved() || ((Rook)rook).hasMoved()) {
+        if (!(king instanceof King) || !(rook instanceof Rook) || (castlingRights & right) == 0) {
             return false;
         }
 
@@ -808,9 +1532,8 @@ public class Board {
             }
         }
 
-        String opponentColor = color.equals("white") ? "black" : "white";
         for (int col = fromCol; col != toCol + step; col += step) {
-            if (isSquareUnderAttack(row, col, opponentColor)) {
+            if (isSquareAttacked(square(row, col), side ^ 1)) {
                 return false;
             }
         }
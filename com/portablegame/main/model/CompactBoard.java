@@ -0,0 +1,102 @@
+package com.portablegame.main.model;
+
+/**
+ * A game held at rest in a few hundred bytes, for servers that keep one board per live game. The
+ * squares are packed four bits each into four longs, the rest of the state is primitives, and only
+ * the position keys a repetition can still reach are kept (none after a capture or pawn move).
+ *
+ * Operations unpack into a working {@link Board} owned by the calling thread, run there, and pack
+ * the result back, so the full board's attack maps and history rings exist once per thread rather
+ * than once per game. A compact board is not thread-safe; give each game to one thread at a time.
+ */
+public final class CompactBoard {
+    private static final ThreadLocal<Board> WORK = ThreadLocal.withInitial(Board::new);
+
+    private final long[] squares = new long[4];
+    private int state;
+    private int halfMoveClock;
+    private int fullMoveNumber;
+    private long key;
+    private long[] keys = new long[8];
+    private int keyCount;
+
+    public CompactBoard() {
+        this(new Board());
+    }
+
+    public CompactBoard(Board board) {
+        store(board);
+    }
+
+    public static CompactBoard fromFEN(String fen) {
+        return new CompactBoard(Board.fromFEN(fen));
+    }
+
+    // overwrites this compact board with the board's current position and repetition keys
+    public void store(Board board) {
+        board.packSquares(squares);
+        state = board.packState();
+        halfMoveClock = board.getHalfMoveClock();
+        fullMoveNumber = board.getFullMoveNumber();
+        key = board.positionKey();
+        int needed = board.recentKeyCount();
+        if (needed > keys.length || needed < keys.length / 4 && keys.length > 8) {
+            keys = new long[Math.max(8, Integer.highestOneBit(Math.max(needed, 1)) * 2)];
+        }
+        keyCount = board.recentKeys(keys);
+    }
+
+    public void loadInto(Board target) {
+        target.unpack(squares, state, halfMoveClock, fullMoveNumber, keys, keyCount);
+    }
+
+    public Board toBoard() {
+        Board board = new Board();
+        loadInto(board);
+        return board;
+    }
+
+    // the thread's working board at this position; valid until the next compact board uses it
+    public Board board() {
+        Board work = WORK.get();
+        loadInto(work);
+        return work;
+    }
+
+    // validates and plays a packed move, see Board.tryMove(int)
+    public boolean tryMove(int move) {
+        Board work = board();
+        if (!work.tryMove(move)) {
+            return false;
+        }
+        store(work);
+        return true;
+    }
+
+    public boolean tryMove(String from, String to, String promotionChoice) {
+        Board work = board();
+        if (!work.tryMove(from, to, promotionChoice)) {
+            return false;
+        }
+        store(work);
+        return true;
+    }
+
+    public GameStatus status() {
+        return board().status();
+    }
+
+    public String toFEN() {
+        return board().toFEN();
+    }
+
+    public Piece getPieceAt(int square) {
+        int code = (int) (squares[square >> 4] >>> ((square & 15) * 4)) & 0xF;
+        return code == 0 ? null : Piece.of(code - 1);
+    }
+
+    public int getSideToMove() { return state & 1; }
+    public int getHalfMoveClock() { return halfMoveClock; }
+    public int getFullMoveNumber() { return fullMoveNumber; }
+    public long positionKey() { return key; }
+}
@@ -0,0 +1,59 @@
+package com.portablegame.main.model;
+
+/**
+ * Check, mate and draw state of a position for the side to move, as computed by
+ * {@link Board#status()}. Immutable, so a board can hand out the same instance until it moves.
+ */
+public final class GameStatus {
+    public static final int CHECK = 1;
+    public static final int CHECKMATE = 2;
+    public static final int STALEMATE = 4;
+    public static final int INSUFFICIENT_MATERIAL = 8;
+    public static final int FIFTY_MOVES = 16;
+    public static final int REPETITION = 32;
+    private static final int DRAWN = STALEMATE | INSUFFICIENT_MATERIAL | FIFTY_MOVES | REPETITION;
+
+    // every side and flag combination, built once so computing a status allocates nothing
+    private static final GameStatus[] ALL = new GameStatus[2 * 64];
+
+    static {
+        for (int i = 0; i < ALL.length; i++) {
+            ALL[i] = new GameStatus(i >> 6, i & 63);
+        }
+    }
+
+    private final int sideToMove;
+    private final int flags;
+
+    private GameStatus(int sideToMove, int flags) {
+        this.sideToMove = sideToMove;
+        this.flags = flags;
+    }
+
+    static GameStatus of(int sideToMove, int flags) {
+        return ALL[sideToMove << 6 | flags];
+    }
+
+    public int getSideToMove() { return sideToMove; }
+    public int getFlags() { return flags; }
+
+    public boolean isCheck() { return (flags & CHECK) != 0; }
+    public boolean isCheckmate() { return (flags & CHECKMATE) != 0; }
+    public boolean isStalemate() { return (flags & STALEMATE) != 0; }
+    public boolean isInsufficientMaterial() { return (flags & INSUFFICIENT_MATERIAL) != 0; }
+    public boolean isFiftyMoveRule() { return (flags & FIFTY_MOVES) != 0; }
+    public boolean isRepetition() { return (flags & REPETITION) != 0; }
+    public boolean isDraw() { return (flags & DRAWN) != 0; }
+    // checkmate or a draw that ends the game on the board, without a claim
+    public boolean isGameOver() { return (flags & (CHECKMATE | STALEMATE | INSUFFICIENT_MATERIAL)) != 0; }
+
+    @Override
+    public String toString() {
+        if (isCheckmate()) return "checkmate";
+        if (isStalemate()) return "stalemate";
+        if (isInsufficientMaterial()) return "insufficient material";
+        if (isRepetition()) return "threefold repetition";
+        if (isFiftyMoveRule()) return "fifty-move rule";
+        return isCheck() ? "check" : "in play";
+    }
+}
@@ -1,69 +1,40 @@
 package com.portablegame.main.model;
 
-public class King extends Piece {
-    private boolean hasMoved = false;
+import static com.portablegame.main.model.Bitboards.*;
 
-    public King(String color, int row, int col, Board board) {
-        super(color, row, col, board);
+public class King extends Piece {
+    King(int side) {
+        super(side);
     }
 
     @Override
-    public boolean isValidMove(int toRow, int toCol) {
-        if (row == toRow && col == toCol) {
-            return false;
-        }
-
-        int rowDiff = Math.abs(toRow - row);
-        int colDiff = Math.abs(toCol - col);
+    public int getType() {
+        return KING;
+    }
 
+    @Override
+    public boolean isValidMove(Board board, int from, int to) {
         // 1 square in any direction
-        if (rowDiff <= 1 && colDiff <= 1) {
-            Piece target = board.getPieceAt(toRow, toCol);
-            return target == null || !target.getColor().equals(color);
+        if ((Attacks.king(from) & bit(to)) != 0) {
+            Piece target = board.getPieceAt(to);
+            return target == null || target.getSide() != side;
         }
 
         // 2 squares horizontally
-        if (row == toRow && colDiff == 2 && !hasMoved) {
-            return board.isValidCastling(color, row, col, toCol);
+        if (rowOf(from) == rowOf(to) && Math.abs(to - from) == 2) {
+            return board.isValidCastling(side, rowOf(from), colOf(from), colOf(to));
         }
 
         return false;
     }
 
-    @Override
-    public void moveTo(int toRow, int toCol) {
-        // Handle castling
-        if (Math.abs(col - toCol) == 2) {
-            // Determine rook positions
-            int rookFromCol = toCol > col ? 7 : 0;
-            int rookToCol = toCol > col ? 5 : 3;
-
-            // Move the rook
-            Piece rook = board.getPieceAt(row, rookFromCol);
-            board.setPieceAt(row, rookToCol, rook);
-            board.setPieceAt(row, rookFromCol, null);
-            rook.setPosition(row, rookToCol);
-        }
-
-        super.moveTo(toRow, toCol);
-        hasMoved = true;
-    }
-
-    public boolean hasMoved() {
-        return hasMoved;
-    }
-
-    public void setHasMoved(boolean hasMoved) {
-        this.hasMoved = hasMoved;
-    }
-
     @Override
     public String getSymbol() {
-        return color.equals("white") ? "♔" : "♚";
+        return side == WHITE ? "♔" : "♚";
     }
 
     @Override
     public String getFENSymbol() {
-        return color.equals("white") ? "K" : "k";
+        return side == WHITE ? "K" : "k";
     }
-}
\ No newline at end of file
+}
@@ -1,25 +1,30 @@
 package com.portablegame.main.model;
 
+import static com.portablegame.main.model.Bitboards.*;
+
 public class Knight extends Piece {
-    public Knight(String color, int row, int col, Board board) {
-        super(color, row, col, board);
+    Knight(int side) {
+        super(side);
+    }
+
+    @Override
+    public int getType() {
+        return KNIGHT;
     }
 
     @Override
-    public boolean isValidMove(int toRow, int toCol) {
-        int rowDiff = Math.abs(toRow - this.row);
-        int colDiff = Math.abs(toCol - this.col);
-        return (rowDiff == 2 && colDiff == 1) || (rowDiff == 1 && colDiff == 2);
+    public boolean isValidMove(Board board, int from, int to) {
+        return (Attacks.knight(from) & bit(to)) != 0;
     }
 
 
     @Override
     public String getSymbol() {
-        return color.equals("white") ? "♘" : "♞";
+        return side == WHITE ? "♘" : "♞";
     }
 
     @Override
     public String getFENSymbol() {
-        return color.equals("white") ? "N" : "n";
+        return side == WHITE ? "N" : "n";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package com.portablegame.main.model;
+
+/**
+ * Moves packed into an int: from square (bits 0-5), to square (6-11), promotion piece type
+ * (12-14, zero when none) and the en passant / castling flags.
+ */
+public final class Move {
+    public static final int NONE = 0;
+    public static final int FLAG_EN_PASSANT = 1 << 15;
+    public static final int FLAG_CASTLING = 1 << 16;
+
+    private Move() {}
+
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    public static int of(int from, int to, int promotionType, int flags) {
+        return from | (to << 6) | (promotionType << 12) | flags;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int promotionType(int move) {
+        return (move >>> 12) & 0x7;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & FLAG_EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        return (move & FLAG_CASTLING) != 0;
+    }
+
+    // coordinate form such as e2e4 or e7e8q, as used by perft divide output
+    public static String toUci(int move) {
+        StringBuilder uci = new StringBuilder(5);
+        appendSquare(uci, from(move));
+        appendSquare(uci, to(move));
+        if (promotionType(move) != 0) {
+            uci.append("pnbrqk".charAt(promotionType(move)));
+        }
+        return uci.toString();
+    }
+
+    private static void appendSquare(StringBuilder out, int square) {
+        out.append((char) ('a' + Bitboards.colOf(square))).append((char) ('8' - Bitboards.rowOf(square)));
+    }
+
+    // piece type for a Q/R/B/N promotion letter, queen when missing
+    public static int promotionTypeOf(String choice) {
+        if (choice == null || choice.isEmpty()) {
+            return Bitboards.QUEEN;
+        }
+        switch (Character.toUpperCase(choice.charAt(0))) {
+            case 'R': return Bitboards.ROOK;
+            case 'B': return Bitboards.BISHOP;
+            case 'N': return Bitboards.KNIGHT;
+            default: return Bitboards.QUEEN;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.portablegame.main.model;
+
+/**
+ * Reusable buffer of packed moves (see {@link Move}). Callers keep one around and hand it to
+ * {@link Board#generateLegalMoves(MoveList)} so generation allocates nothing per position.
+ */
+public final class MoveList {
+    // no chess position has more than 218 legal moves
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -4,316 +4,221 @@ import com.portablegame.util.MoveCoordinates;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+
+import static com.portablegame.main.model.Bitboards.*;
 
 public class MoveValidation {
-    private static final String MOVE_PATTERN =
-            "^(?:" +
-                    "([KQRBN])([a-h]?[1-8]?)x?([a-h][1-8])(=[QRBN])?[+#]?" +  // piece moves/captures
-                    "|" +
-                    "([a-h])x([a-h][1-8])(=[QRBN])?[+#]?" +  // pawn captures
-                    "|" +
-                    "([a-h][1-8])(=[QRBN])?[+#]?" +  // pawn moves
-                    "|" +
-                    "(O-O(?:-O)?)[+#]?" +  // castling
-                    ")$";
-
-    private final int moveNumber;
-    private final String originalNotation;
-    private final String color;
-    private MoveCoordinates coordinates;
+    private static final String[] PROMOTION_LETTERS = {null, "N", "B", "R", "Q"};
+
+    private int moveNumber;
+    private String originalNotation;
+    private String color;
+    private int move = Move.NONE;
     private boolean isValid;
     private final List<String> errors = new ArrayList<>();
     private String promotionPiece;
 
     public MoveValidation(int moveNumber, String notation, String color) {
-        this.moveNumber = Objects.requireNonNull(moveNumber);
+        reset(moveNumber, notation, color);
+    }
+
+    // points this validation at the next move of a game, so one instance serves every ply
+    public MoveValidation reset(int moveNumber, String notation, String color) {
+        this.moveNumber = moveNumber;
         this.originalNotation = Objects.requireNonNull(notation);
         this.color = Objects.requireNonNull(color);
-        this.isValid = true;
+        resetValidationState();
+        return this;
     }
 
     public boolean validateMove(String move, String color, Board board) {
         resetValidationState();
+        int side = sideOf(color);
 
-        // Basic syntax check
-        if (!isValidSyntax(move)) {
+        // Basic syntax check; the decoded token carries every part the later checks need
+        int san = San.decode(move);
+        if (san == San.INVALID) {
+            addError("Malformed move syntax: " + move);
             return false;
         }
 
         // Parse the move
-        MoveCoordinates coords = parseAlgebraicNotation(move, color, board);
-        if (coords == null) {
+        int parsed = parseAlgebraicNotation(san, side, board);
+        if (parsed == Move.NONE) {
             addError("Could not parse move: " + move);
             return false;
         }
 
         // Validate piece movement rules
-        if (!validateStandardMove(move, color, board, coords)) {
+        if (!validateStandardMove(san, side, board, parsed)) {
             return false;
         }
 
         // Validate check indicators if present
-        if (!validateCheckIndicators(move, color, board, coords)) {
+        if (!validateCheckIndicators(san, board, parsed)) {
             return false;
         }
 
-        this.coordinates = coords;
+        this.move = encode(board, parsed);
         return true;
     }
 
-    private MoveCoordinates parseAlgebraicNotation(String move, String color, Board board) {
-        // Remove check/mate symbols and annotations first
-        String cleanMove = move.replaceAll("[+#!?]", "").trim();
-
-        try {
-            // Handle castling
-            if (cleanMove.equals("O-O") || cleanMove.equals("O-O-O")) {
-                return parseCastlingMove(cleanMove, color, board);
-            }
-
-            // Handle pawn promotions
-            if (cleanMove.matches("[a-h][18]=[QRBN]")) {
-                return parsePawnPromotion(cleanMove, color, board);
-            }
-
-            // Handle piece moves (with optional disambiguation)
-            Matcher m = Pattern.compile("^([KQRBN])([a-h]?[1-8]?)(x?)([a-h][1-8])(=[QRBN])?$").matcher(cleanMove);
-            if (m.matches()) {
-                return parsePieceMove(m.group(1).charAt(0), m.group(2),
-                        m.group(3).equals("x"), m.group(4), color, board);
-            }
-
-            // Handle pawn captures
-            m = Pattern.compile("^([a-h])x([a-h][1-8])(=[QRBN])?$").matcher(cleanMove);
-            if (m.matches()) {
-                return parsePawnCapture(m.group(1).charAt(0), m.group(2),
-                        m.group(3) != null ? m.group(3).substring(1) : null, color, board);
-            }
-
-            // Handle simple pawn moves
-            if (cleanMove.matches("^[a-h][1-8]$")) {
-                return parsePawnMove(cleanMove, color, board);
-            }
-
-            // Handle queen moves specifically
-            if (cleanMove.matches("^Q[a-h]?[1-8]?[a-h][1-8]$")) {
-                return parseQueenMove(cleanMove, color, board);
-            }
-        } catch (Exception e) {
-            addError("Error parsing move '" + move + "': " + e.getMessage());
+    // a game that has ended on the board (checkmate, stalemate or a dead position) takes no more moves;
+    // both validators run this before every move, castling included, so they agree on where a game stops
+    public boolean validateGameInProgress(Board board) {
+        GameStatus status = board.status();
+        if (status.isGameOver()) {
+            addError("Move played after the game ended by " + status);
+            return false;
         }
-
-        return null;
+        return true;
     }
 
-    private MoveCoordinates parseQueenMove(String move, String color, Board board) {
-        char pieceType = 'Q';
-        String target = move.substring(move.length()-2);
-        String disambiguation = move.substring(1, move.length()-2);
-        return findPieceMove(pieceType, target, disambiguation, color, board, move.contains("x"));
-    }
+    private int parseAlgebraicNotation(int san, int side, Board board) {
+        if (San.isCastling(san)) {
+            return parseCastlingMove(San.isKingsideCastling(san), side);
+        }
 
-    private MoveCoordinates parsePawnPromotion(String move, String color, Board board) {
-        String target = move.substring(0, 2);
-        String promoPiece = move.substring(3);
-        MoveCoordinates coords = parsePawnMove(target, color, board);
-        if (coords != null) {
-            this.promotionPiece = promoPiece;
+        int type = San.pieceType(san);
+        int target = San.target(san);
+        if (type != PAWN) {
+            return findPieceMove(type, target, San.fromCol(san), San.fromRow(san), side, board, San.isCapture(san));
         }
-        return coords;
-    }
 
-    private MoveCoordinates parsePieceMove(char pieceType, String disambiguation,
-                                           boolean isCapture, String target,
-                                           String color, Board board) {
-        return findPieceMove(pieceType, target, disambiguation, color, board, isCapture);
+        int parsed = San.isCapture(san)
+                ? parsePawnCapture(San.fromCol(san), target, side, board)
+                : parsePawnMove(target, side, board);
+        if (parsed != Move.NONE && San.promotionType(san) != 0) {
+            this.promotionPiece = PROMOTION_LETTERS[San.promotionType(san)];
+        }
+        return parsed;
     }
 
-    private MoveCoordinates findPieceMove(char pieceType, String target,
-                                          String disambiguation, String color,
-                                          Board board, boolean isCapture) {
-        int targetRow = 8 - Character.getNumericValue(target.charAt(1));
-        int targetCol = target.charAt(0) - 'a';
-
-        Class<? extends Piece> pieceClass = getPieceClass(pieceType);
+    private int findPieceMove(int type, int target, int fromCol, int fromRow, int side,
+                              Board board, boolean isCapture) {
+        Piece targetPiece = board.getPieceAt(target);
 
         // Find matching piece that can move to target
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPieceAt(row, col);
-                if (piece != null && piece.getClass().equals(pieceClass) &&
-                        piece.getColor().equals(color)) {
-
-                    // Check disambiguation if present
-                    if (!disambiguation.isEmpty()) {
-                        if (disambiguation.matches("[a-h]")) { // File disambiguation
-                            int file = disambiguation.charAt(0) - 'a';
-                            if (col != file) continue;
-                        } else if (disambiguation.matches("[1-8]")) { // Rank disambiguation
-                            int rank = 8 - Integer.parseInt(disambiguation);
-                            if (row != rank) continue;
-                        }
-                    }
+        for (int from = 0; from < 64; from++) {
+            Piece piece = board.getPieceAt(from);
+            if (piece == null || piece.getType() != type || piece.getSide() != side) {
+                continue;
+            }
+            // Check disambiguation if present
+            if ((fromCol >= 0 && colOf(from) != fromCol) || (fromRow >= 0 && rowOf(from) != fromRow)) {
+                continue;
+            }
 
-                    if (piece.isValidMove(targetRow, targetCol)) {
-                        Piece targetPiece = board.getPieceAt(targetRow, targetCol);
-                        if (isCapture) {
-                            if (targetPiece != null && !targetPiece.getColor().equals(color)) {
-                                return new MoveCoordinates(
-                                        "" + (char)('a' + col) + (8 - row),
-                                        target
-                                );
-                            }
-                        } else if (targetPiece == null) {
-                            return new MoveCoordinates(
-                                    "" + (char)('a' + col) + (8 - row),
-                                    target
-                            );
-                        }
+            if (piece.isValidMove(board, from, target)) {
+                if (isCapture) {
+                    if (targetPiece != null && targetPiece.getSide() != side) {
+                        return Move.of(from, target);
                     }
+                } else if (targetPiece == null) {
+                    return Move.of(from, target);
                 }
             }
         }
-        return null;
+        return Move.NONE;
     }
 
-    private MoveCoordinates parsePawnMove(String move, String color, Board board) {
-        String target = move.split("=")[0];
-        int targetRow = 8 - Character.getNumericValue(target.charAt(1));
-        int targetCol = target.charAt(0) - 'a';
-        int direction = color.equals("white") ? -1 : 1;
+    private int parsePawnMove(int target, int side, Board board) {
+        int targetRow = rowOf(target);
+        int targetCol = colOf(target);
+        int direction = side == WHITE ? -1 : 1;
 
         // Check single square move
         int sourceRow = targetRow - direction;
         if (sourceRow >= 0 && sourceRow < 8) {
             Piece pawn = board.getPieceAt(sourceRow, targetCol);
-            if (pawn instanceof Pawn && pawn.getColor().equals(color)) {
-                return new MoveCoordinates(
-                        "" + target.charAt(0) + (8 - sourceRow),
-                        target
-                );
+            if (pawn instanceof Pawn && pawn.getSide() == side) {
+                return Move.of(square(sourceRow, targetCol), square(targetRow, targetCol));
             }
         }
 
         // Check double move from starting position
-        int startRow = color.equals("white") ? 6 : 1;
+        int startRow = side == WHITE ? 6 : 1;
         if (targetRow == startRow + 2 * direction) {
             Piece pawn = board.getPieceAt(startRow, targetCol);
-            if (pawn instanceof Pawn && pawn.getColor().equals(color)) {
-                return new MoveCoordinates(
-                        "" + target.charAt(0) + (8 - startRow),
-                        target
-                );
+            if (pawn instanceof Pawn && pawn.getSide() == side) {
+                return Move.of(square(startRow, targetCol), square(targetRow, targetCol));
             }
         }
 
-        return null;
+        return Move.NONE;
     }
 
-    private MoveCoordinates parsePawnCapture(char sourceFile, String target,
-                                             String promotion, String color,
-                                             Board board) {
-        int targetRow = 8 - Character.getNumericValue(target.charAt(1));
-        int targetCol = target.charAt(0) - 'a';
-        int sourceCol = sourceFile - 'a';
-        int direction = color.equals("white") ? -1 : 1;
+    private int parsePawnCapture(int sourceCol, int target, int side, Board board) {
+        int targetRow = rowOf(target);
+        int targetCol = colOf(target);
+        int direction = side == WHITE ? -1 : 1;
         int sourceRow = targetRow - direction;
 
         // Check normal capture
         if (sourceRow >= 0 && sourceRow < 8) {
             Piece pawn = board.getPieceAt(sourceRow, sourceCol);
-            if (pawn instanceof Pawn && pawn.getColor().equals(color)) {
-                if (promotion != null) {
-                    this.promotionPiece = promotion;
-                }
-                return new MoveCoordinates(
-                        "" + sourceFile + (8 - sourceRow),
-                        target
-                );
+            if (pawn instanceof Pawn && pawn.getSide() == side) {
+                return Move.of(square(sourceRow, sourceCol), square(targetRow, targetCol));
             }
         }
 
         // Check en passant
-        String epTarget = board.getEnPassantTarget();
-        if (epTarget != null && epTarget.equals(target)) {
-            int epRow = color.equals("white") ? 3 : 4;
+        if (board.getEnPassantSquare() == square(targetRow, targetCol)) {
+            int epRow = side == WHITE ? 3 : 4;
             Piece pawn = board.getPieceAt(epRow, sourceCol);
-            if (pawn instanceof Pawn && pawn.getColor().equals(color)) {
-                return new MoveCoordinates(
-                        "" + sourceFile + (8 - epRow),
-                        target
-                );
+            if (pawn instanceof Pawn && pawn.getSide() == side) {
+                return Move.of(square(epRow, sourceCol), square(targetRow, targetCol));
             }
         }
 
-        return null;
-    }
-
-    private Class<? extends Piece> getPieceClass(char pieceChar) {
-        switch (Character.toUpperCase(pieceChar)) {
-            case 'K': return King.class;
-            case 'Q': return Queen.class;
-            case 'R': return Rook.class;
-            case 'B': return Bishop.class;
-            case 'N': return Knight.class;
-            default: return Pawn.class;
-        }
-    }
-
-    private boolean isValidSyntax(String move) {
-        if (!move.matches(MOVE_PATTERN)) {
-            addError("Malformed move syntax: " + move);
-            return false;
-        }
-        return true;
+        return Move.NONE;
     }
 
-    private boolean validateStandardMove(String move, String color, Board board,
-                                         MoveCoordinates coords) {
+    private boolean validateStandardMove(int san, int side, Board board, int parsed) {
+        int from = Move.from(parsed);
+        int to = Move.to(parsed);
         // Get the moving piece
-        Piece piece = board.getPieceAt(coords.fromRow, coords.fromCol);
+        Piece piece = board.getPieceAt(rowOf(from), colOf(from));
 
         // Verify piece exists and is correct color
         if (piece == null) {
-            addError("No piece at " + coords.from);
+            addError("No piece at " + squareName(from));
             return false;
         }
-        if (!piece.getColor().equals(color)) {
-            addError("Wrong color piece at " + coords.from);
+        if (piece.getSide() != side) {
+            addError("Wrong color piece at " + squareName(from));
             return false;
         }
 
         // Validate piece-specific movement rules
-        if (!validatePieceMovement(piece, coords, board)) {
+        if (!validatePieceMovement(piece, parsed, board)) {
             return false;
         }
 
         // Check for promotion
-        if (move.contains("=")) {
-            if (!validatePromotion(piece, coords.toRow, move)) {
+        if (San.promotionType(san) != 0) {
+            if (!validatePromotion(piece, rowOf(to), San.promotionType(san))) {
                 return false;
             }
         }
 
         // Handle capture moves
-        boolean isCapture = move.contains("x") ||
-                (piece instanceof Pawn && coords.fromCol != coords.toCol);
+        boolean isCapture = San.isCapture(san) ||
+                (piece instanceof Pawn && colOf(from) != colOf(to));
 
         if (isCapture) {
-            if (!validateCapture(piece, coords, board)) {
+            if (!validateCapture(piece, to, board)) {
                 return false;
             }
         } else {
             // For non-capture moves, destination must be empty
-            if (board.getPieceAt(coords.toRow, coords.toCol) != null) {
-                addError(coords.to + " is blocked");
+            if (board.getPieceAt(rowOf(to), colOf(to)) != null) {
+                addError(squareName(to) + " is blocked");
                 return false;
             }
         }
 
-        if (wouldLeaveKingInCheck(piece, coords, board)) {
+        if (board.leavesKingInCheck(encode(board, parsed))) {
             addError("Move would leave king in check");
             return false;
         }
@@ -321,17 +226,9 @@ public class MoveValidation {
         return true;
     }
 
-    private boolean validateCheckIndicators(String move, String color, Board board, MoveCoordinates coords) {
-        if (move.endsWith("+") || move.endsWith("#")) {
-            Piece movingPiece = board.getPieceAt(coords.fromRow, coords.fromCol);
-            Piece captured = board.getPieceAt(coords.toRow, coords.toCol);
-            board.setPieceAt(coords.toRow, coords.toCol, movingPiece);
-            board.setPieceAt(coords.fromRow, coords.fromCol, null);
-            boolean isCheck = board.isKingInCheck(color.equals("white") ? "black" : "white");
-            board.setPieceAt(coords.fromRow, coords.fromCol, movingPiece);
-            board.setPieceAt(coords.toRow, coords.toCol, captured);
-
-            if (!isCheck) {
+    private boolean validateCheckIndicators(int san, Board board, int parsed) {
+        if (San.isCheck(san)) {
+            if (!board.givesCheck(encode(board, parsed))) {
                 addError("Move claims check but doesn't put opponent in check");
                 return false;
             }
@@ -339,70 +236,24 @@ public class MoveValidation {
         return true;
     }
 
-
-    private boolean causesCheck(Board board, MoveCoordinates coords, String movingColor) {
-        Piece movingPiece = board.getPieceAt(coords.fromRow, coords.fromCol);
-        Piece captured = board.getPieceAt(coords.toRow, coords.toCol);
-
-        board.setPieceAt(coords.toRow, coords.toCol, movingPiece);
-        board.setPieceAt(coords.fromRow, coords.fromCol, null);
-
-        boolean isCheck = board.isKingInCheck(movingColor.equals("white") ? "black" : "white");
-
-        board.setPieceAt(coords.fromRow, coords.fromCol, movingPiece);
-        board.setPieceAt(coords.toRow, coords.toCol, captured);
-
-        return isCheck;
-    }
-
-    private boolean validateCastling(String move, String color, Board board) {
-        boolean kingside = move.equals("O-O");
-        int row = color.equals("white") ? 7 : 0;
-        int kingCol = 4;
-        int kingDestCol = kingside ? 6 : 2;
-
-        Piece king = board.getPieceAt(row, kingCol);
-        if (!(king instanceof King) || !king.getColor().equals(color)) {
-            addError("King not in starting position");
-            return false;
-        }
-
-        if (board.isSquareUnderAttack(row, kingCol, color.equals("white") ? "black" : "white")) {
-            addError("Cannot castle while in check");
-            return false;
-        }
-
-        int step = kingside ? 1 : -1;
-        for (int col = kingCol; col != kingDestCol; col += step) {
-            if (col != kingCol && board.isSquareUnderAttack(row, col, color.equals("white") ? "black" : "white")) {
-                addError("Cannot castle through check");
-                return false;
-            }
-        }
-
-        this.coordinates = new MoveCoordinates(
-                "e" + (color.equals("white") ? "1" : "8"),
-                (kingside ? "g" : "c") + (color.equals("white") ? "1" : "8")
-        );
-        return true;
-    }
-
-    private boolean validatePieceMovement(Piece piece, MoveCoordinates coords, Board board) {
-        if (!piece.isValidMove(coords.toRow, coords.toCol)) {
+    private boolean validatePieceMovement(Piece piece, int parsed, Board board) {
+        int toRow = rowOf(Move.to(parsed));
+        int toCol = colOf(Move.to(parsed));
+        if (!piece.isValidMove(board, Move.from(parsed), Move.to(parsed))) {
             addError("Illegal " + piece.getClass().getSimpleName() + " move");
             return false;
         }
 
         if (piece instanceof Rook || piece instanceof Bishop || piece instanceof Queen) {
-            if (!board.isPathClear(piece.getRow(), piece.getCol(), coords.toRow, coords.toCol)) {
+            if (!board.isPathClear(rowOf(Move.from(parsed)), colOf(Move.from(parsed)), toRow, toCol)) {
                 addError("Path blocked for " + piece.getClass().getSimpleName());
                 return false;
             }
         }
 
         if (piece instanceof Pawn) {
-            if (coords.fromCol != coords.toCol) {
-                if (!validatePawnCapture((Pawn) piece, coords, board)) {
+            if (colOf(Move.from(parsed)) != toCol) {
+                if (!validatePawnCapture((Pawn) piece, Move.to(parsed), board)) {
                     return false;
                 }
             }
@@ -411,85 +262,70 @@ public class MoveValidation {
         return true;
     }
 
-    private boolean validatePawnCapture(Pawn pawn, MoveCoordinates coords, Board board) {
-        Piece target = board.getPieceAt(coords.toRow, coords.toCol);
-        if (target == null && !board.isEnPassantPossible(coords.to)) {
+    private boolean validatePawnCapture(Pawn pawn, int to, Board board) {
+        Piece target = board.getPieceAt(rowOf(to), colOf(to));
+        if (target == null && !board.isEnPassantPossible(to)) {
             addError("Invalid pawn capture");
             return false;
         }
         return true;
     }
 
-    private boolean validatePromotion(Piece piece, int toRow, String move) {
+    private boolean validatePromotion(Piece piece, int toRow, int promotionType) {
         if (!(piece instanceof Pawn)) {
             addError("Only pawns can promote");
             return false;
         }
 
-        int promotionRow = piece.getColor().equals("white") ? 0 : 7;
+        int promotionRow = piece.getSide() == WHITE ? 0 : 7;
         if (toRow != promotionRow) {
             addError("Promotion only on last rank");
             return false;
         }
 
-        if (move.contains("=")) {
-            String promoPiece = move.substring(move.indexOf("=") + 1).replaceAll("[+#]", "");
-            if (!"QRBN".contains(promoPiece.toUpperCase())) {
-                addError("Invalid promotion piece: " + promoPiece);
-                return false;
-            }
-            this.promotionPiece = promoPiece;
-        } else {
-            this.promotionPiece = "Q";
-        }
+        this.promotionPiece = PROMOTION_LETTERS[promotionType];
         return true;
     }
 
-    private boolean validateCapture(Piece piece, MoveCoordinates coords, Board board) {
-        Piece target = board.getPieceAt(coords.toRow, coords.toCol);
+    private boolean validateCapture(Piece piece, int to, Board board) {
+        Piece target = board.getPieceAt(rowOf(to), colOf(to));
 
         if (target == null) {
             if (!(piece instanceof Pawn)) {
-                addError("No piece to capture at " + coords.to);
+                addError("No piece to capture at " + squareName(to));
                 return false;
             }
-            if (!board.isEnPassantPossible(coords.to)) {
+            if (!board.isEnPassantPossible(to)) {
                 addError("Invalid en passant capture");
                 return false;
             }
-        } else if (target.getColor().equals(piece.getColor())) {
+        } else if (target.getSide() == piece.getSide()) {
             addError("Cannot capture own piece");
             return false;
         }
         return true;
     }
 
-    private boolean wouldLeaveKingInCheck(Piece piece, MoveCoordinates coords, Board board) {
-        Piece captured = board.getPieceAt(coords.toRow, coords.toCol);
-
-        board.setPieceAt(coords.toRow, coords.toCol, piece);
-        board.setPieceAt(piece.getRow(), piece.getCol(), null);
-
-        boolean inCheck = board.isKingInCheck(piece.getColor());
-
-        board.setPieceAt(piece.getRow(), piece.getCol(), piece);
-        board.setPieceAt(coords.toRow, coords.toCol, captured);
+    // adds the castling, en passant and promotion details the board infers from the pieces
+    private int encode(Board board, int parsed) {
+        int from = Move.from(parsed);
+        int to = Move.to(parsed);
+        return board.encodeMove(rowOf(from), colOf(from), rowOf(to), colOf(to), promotionPiece);
+    }
 
-        return inCheck;
+    private static String squareName(int square) {
+        return "" + (char) ('a' + colOf(square)) + (8 - rowOf(square));
     }
 
-    private MoveCoordinates parseCastlingMove(String move, String color, Board board) {
-        boolean kingside = move.equals("O-O");
-        return new MoveCoordinates(
-                "e" + (color.equals("white") ? "1" : "8"),
-                (kingside ? "g" : "c") + (color.equals("white") ? "1" : "8")
-        );
+    private int parseCastlingMove(boolean kingside, int side) {
+        int row = side == WHITE ? 7 : 0;
+        return Move.of(square(row, 4), square(row, kingside ? 6 : 2));
     }
 
     private void resetValidationState() {
         this.isValid = true;
         this.errors.clear();
-        this.coordinates = null;
+        this.move = Move.NONE;
         this.promotionPiece = null;
     }
 
@@ -503,7 +339,10 @@ public class MoveValidation {
     }
 
     public boolean isValid() { return isValid && errors.isEmpty(); }
-    public MoveCoordinates getCoordinates() { return coordinates; }
+    public int getMove() { return move; }
+    public MoveCoordinates getCoordinates() {
+        return move == Move.NONE ? null : new MoveCoordinates(squareName(Move.from(move)), squareName(Move.to(move)));
+    }
     public List<String> getErrors() { return new ArrayList<>(errors); }
     public String getPromotionPiece() { return promotionPiece; }
     public String getOriginalNotation() { return originalNotation; }
@@ -1,86 +1,55 @@
 package com.portablegame.main.model;
 
+import static com.portablegame.main.model.Bitboards.*;
+
 public class Pawn extends Piece {
-    private boolean hasMoved = false;
+    Pawn(int side) {
+        super(side);
+    }
 
-    public Pawn(String color, int row, int col, Board board) {
-        super(color, row, col, board);
+    @Override
+    public int getType() {
+        return PAWN;
     }
 
     @Override
-    public boolean isValidMove(int toRow, int toCol) {
-        if (row == toRow && col == toCol) {
-            return false;
-        }
+    public boolean isValidMove(Board board, int from, int to) {
+        long target = bit(to);
 
-        int direction = color.equals("white") ? -1 : 1;
-        int startRow = color.equals("white") ? 6 : 1;
+        // single move forward
+        if ((Attacks.pawnPush(side, from) & target) != 0) {
+            return board.getPieceAt(to) == null;
+        }
 
-        if (col == toCol) {
-            // single move forward
-            if (toRow == row + direction && board.getPieceAt(toRow, toCol) == null) {
-                return true;
-            }
-            // double move from starting position
-            if (row == startRow && toRow == row + 2 * direction &&
-                    board.getPieceAt(row + direction, col) == null &&
-                    board.getPieceAt(toRow, toCol) == null) {
-                return true;
-            }
-            return false;
+        // double move from starting position
+        if ((Attacks.pawnDoublePush(side, from) & target) != 0) {
+            return board.isPathClear(from, to) && board.getPieceAt(to) == null;
         }
 
         // capture move (diagonal)
-        if (Math.abs(col - toCol) == 1 && toRow == row + direction) {
-            Piece target = board.getPieceAt(toRow, toCol);
-
-            if (target != null && !target.getColor().equals(color)) {
-                return true;
+        if ((Attacks.pawn(side, from) & target) != 0) {
+            Piece captured = board.getPieceAt(to);
+            if (captured != null) {
+                return captured.getSide() != side;
             }
 
             // En passant capture
-            if (target == null) {
-                String enPassantTarget = board.getEnPassantTarget();
-                if (enPassantTarget != null) {
-                    int epCol = enPassantTarget.charAt(0) - 'a';
-                    int epRow = 8 - Character.getNumericValue(enPassantTarget.charAt(1));
-                    if (toRow == epRow && toCol == epCol) {
-                        Piece adjacentPawn = board.getPieceAt(row, toCol);
-                        return adjacentPawn instanceof Pawn && !adjacentPawn.getColor().equals(color);
-                    }
-                }
+            if (board.getEnPassantSquare() == to) {
+                Piece adjacentPawn = board.getPieceAt(rowOf(from), colOf(to));
+                return adjacentPawn instanceof Pawn && adjacentPawn.getSide() != side;
             }
         }
 
         return false;
     }
 
-    @Override
-    public void moveTo(int toRow, int toCol) {
-        int direction = color.equals("white") ? -1 : 1;
-
-        if (col != toCol && board.getPieceAt(toRow, toCol) == null) {
-            board.setPieceAt(row, toCol, null);
-        }
-
-        if (Math.abs(toRow - row) == 2) {
-            int epRow = row + direction;
-            board.setEnPassantTarget("" + (char)('a' + toCol) + (8 - epRow));
-        } else {
-            board.setEnPassantTarget(null);
-        }
-
-        super.moveTo(toRow, toCol);
-        hasMoved = true;
-    }
-
     @Override
     public String getSymbol() {
-        return color.equals("white") ? "♙" : "♟";
+        return side == WHITE ? "♙" : "♟";
     }
 
     @Override
     public String getFENSymbol() {
-        return color.equals("white") ? "P" : "p";
+        return side == WHITE ? "P" : "p";
     }
-}
\ No newline at end of file
+}
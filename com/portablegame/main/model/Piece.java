@@ -2,42 +2,44 @@ package com.portablegame.main.model;
 
 
 public abstract class Piece {
-    protected String color;
-    protected int row;
-    protected int col;
-    protected Board board;
-    protected boolean hasMoved = false;
-    public Piece(String color, int row, int col, Board board) {
-        this.color = color;
-        this.row = row;
-        this.col = col;
-        this.board = board;
+    // one shared rule object per side and type, indexed like the piece masks (side * 6 + type)
+    private static final Piece[] SHARED = {
+            new Pawn(Bitboards.WHITE), new Knight(Bitboards.WHITE), new Bishop(Bitboards.WHITE),
+            new Rook(Bitboards.WHITE), new Queen(Bitboards.WHITE), new King(Bitboards.WHITE),
+            new Pawn(Bitboards.BLACK), new Knight(Bitboards.BLACK), new Bishop(Bitboards.BLACK),
+            new Rook(Bitboards.BLACK), new Queen(Bitboards.BLACK), new King(Bitboards.BLACK)
+    };
+
+    protected final int side;
+
+    // only the shared instances above exist; the board passes the squares in
+    Piece(int side) {
+        this.side = side;
     }
 
-    public abstract String getFENSymbol();
-    public abstract boolean isValidMove(int toRow, int toCol);
-    public abstract String getSymbol();
-
-    public int getRow() { return row; }
-    public int getCol() { return col; }
-    public String getColor() { return color; }
-    public boolean hasMoved() { return hasMoved; }
-
-    public void setPosition(int row, int col) {
-        this.row = row;
-        this.col = col;
+    public static Piece of(int side, int type) {
+        return SHARED[Bitboards.pieceIndex(side, type)];
     }
 
-    public void moveTo(int toRow, int toCol) {
-        setPosition(toRow, toCol);
-        hasMoved = true;
+    static Piece of(int index) {
+        return SHARED[index];
     }
 
+    public abstract String getFENSymbol();
+    public abstract String getSymbol();
+    // Bitboards.PAWN .. Bitboards.KING
+    public abstract int getType();
+    // move rule for this kind of piece standing on the from square of the given board
+    public abstract boolean isValidMove(Board board, int from, int to);
+
+    public int getSide() { return side; }
+    public String getColor() { return Bitboards.colorName(side); }
+
     protected boolean isSameColor(Piece target) {
-        return target != null && target.getColor().equals(color);
+        return target != null && target.side == side;
     }
 
     protected boolean isOpponent(Piece target) {
-        return target != null && !target.getColor().equals(color);
+        return target != null && target.side != side;
     }
-}
\ No newline at end of file
+}
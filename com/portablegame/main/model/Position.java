@@ -0,0 +1,192 @@
+package com.portablegame.main.model;
+
+import static com.portablegame.main.model.Bitboards.*;
+
+/**
+ * Immutable snapshot of a position. {@link #play(int)} returns a new position and leaves this one
+ * untouched, so any number of threads can read a published position without locking; publishing a
+ * move is one write of the new reference (for example to a volatile field).
+ *
+ * Positions share structure: each side's piece masks live in their own array, and a move copies only
+ * the mover's array (plus the opponent's on a capture). Every position links to the one it was played
+ * from, so the game history is a shared chain rather than a list copied per ply.
+ */
+public final class Position {
+    private static final String FEN_SYMBOLS = "PNBRQKpnbrqk";
+
+    private final long[] white;
+    private final long[] black;
+    private final int sideToMove;
+    private final int castlingRights;
+    private final int enPassantSquare;
+    private final int halfMoveClock;
+    private final int fullMoveNumber;
+    private final long key;
+    private final Position previous;
+    private final int lastMove;
+    private final int ply;
+
+    Position(long[] white, long[] black, int sideToMove, int castlingRights, int enPassantSquare,
+             int halfMoveClock, int fullMoveNumber, long key, Position previous, int lastMove, int ply) {
+        this.white = white;
+        this.black = black;
+        this.sideToMove = sideToMove;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfMoveClock = halfMoveClock;
+        this.fullMoveNumber = fullMoveNumber;
+        this.key = key;
+        this.previous = previous;
+        this.lastMove = lastMove;
+        this.ply = ply;
+    }
+
+    public static Position of(Board board) {
+        return board.toPosition();
+    }
+
+    // applies a legal move, as generated by Board or accepted by MoveValidation, without checking it again
+    public Position play(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int us = sideToMove;
+        long[] own = (us == WHITE ? white : black).clone();
+        long[] other = us == WHITE ? black : white;
+        long key = this.key;
+
+        int moving = typeAt(own, from);
+        int capturedSquare = Move.isEnPassant(move) ? square(rowOf(from), colOf(to)) : to;
+        int captured = typeAt(other, capturedSquare);
+        if (captured >= 0) {
+            other = other.clone();
+            other[captured] &= ~bit(capturedSquare);
+            key ^= Zobrist.PIECE_SQUARE[pieceIndex(us ^ 1, captured)][capturedSquare];
+        }
+
+        int placed = Move.promotionType(move) != 0 ? Move.promotionType(move) : moving;
+        own[moving] &= ~bit(from);
+        own[placed] |= bit(to);
+        key ^= Zobrist.PIECE_SQUARE[pieceIndex(us, moving)][from] ^ Zobrist.PIECE_SQUARE[pieceIndex(us, placed)][to];
+        if (Move.isCastling(move)) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            own[ROOK] ^= bit(rookFrom) | bit(rookTo);
+            key ^= Zobrist.PIECE_SQUARE[pieceIndex(us, ROOK)][rookFrom] ^ Zobrist.PIECE_SQUARE[pieceIndex(us, ROOK)][rookTo];
+        }
+
+        int rights = castlingRights & Board.castlingMask(from) & Board.castlingMask(to);
+        key ^= Zobrist.CASTLING[castlingRights] ^ Zobrist.CASTLING[rights];
+        int enPassant = moving == PAWN && Math.abs(to - from) == 16 ? (from + to) / 2 : -1;
+        if (enPassantSquare >= 0) {
+            key ^= Zobrist.EN_PASSANT_FILE[colOf(enPassantSquare)];
+        }
+        if (enPassant >= 0) {
+            key ^= Zobrist.EN_PASSANT_FILE[colOf(enPassant)];
+        }
+        key ^= Zobrist.BLACK_TO_MOVE;
+
+        int halfMove = moving == PAWN || captured >= 0 ? 0 : halfMoveClock + 1;
+        int fullMove = us == BLACK ? fullMoveNumber + 1 : fullMoveNumber;
+        return new Position(us == WHITE ? own : other, us == WHITE ? other : own, us ^ 1, rights, enPassant,
+                halfMove, fullMove, key, this, move, ply + 1);
+    }
+
+    private static int typeAt(long[] masks, int square) {
+        long squareBit = bit(square);
+        for (int type = PAWN; type <= KING; type++) {
+            if ((masks[type] & squareBit) != 0) {
+                return type;
+            }
+        }
+        return -1;
+    }
+
+    // the position this one was played from, or null at the start of the chain
+    public Position previous() { return previous; }
+    public int lastMove() { return lastMove; }
+    public int ply() { return ply; }
+
+    // an earlier position of the same chain, counting plies from its start
+    public Position atPly(int target) {
+        if (target < 0 || target > ply) {
+            throw new IllegalArgumentException("Ply " + target + " is outside 0.." + ply);
+        }
+        Position position = this;
+        while (position.ply != target) {
+            position = position.previous;
+        }
+        return position;
+    }
+
+    public Piece getPieceAt(int square) {
+        int type = typeAt(white, square);
+        if (type >= 0) {
+            return Piece.of(WHITE, type);
+        }
+        type = typeAt(black, square);
+        return type < 0 ? null : Piece.of(BLACK, type);
+    }
+
+    public long getPieceMask(int side, int type) {
+        return (side == WHITE ? white : black)[type];
+    }
+
+    public long positionKey() { return key; }
+    public int getSideToMove() { return sideToMove; }
+    public int getEnPassantSquare() { return enPassantSquare; }
+    public int getHalfMoveClock() { return halfMoveClock; }
+    public int getFullMoveNumber() { return fullMoveNumber; }
+
+    // a mutable board at this position, for legality checks or further validation
+    public Board toBoard() {
+        return Board.fromFEN(toFEN());
+    }
+
+    public String toFEN() {
+        StringBuilder fen = new StringBuilder(90);
+        for (int row = 0; row < 8; row++) {
+            int emptyCount = 0;
+            for (int col = 0; col < 8; col++) {
+                int square = square(row, col);
+                int index = typeAt(white, square);
+                if (index < 0) {
+                    int blackType = typeAt(black, square);
+                    index = blackType < 0 ? -1 : 6 + blackType;
+                }
+                if (index < 0) {
+                    emptyCount++;
+                    continue;
+                }
+                if (emptyCount > 0) {
+                    fen.append(emptyCount);
+                    emptyCount = 0;
+                }
+                fen.append(FEN_SYMBOLS.charAt(index));
+            }
+            if (emptyCount > 0) {
+                fen.append(emptyCount);
+            }
+            if (row < 7) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(sideToMove == WHITE ? " w " : " b ");
+        if (castlingRights == 0) {
+            fen.append('-');
+        } else {
+            for (int i = 0; i < 4; i++) {
+                if ((castlingRights & (1 << i)) != 0) {
+                    fen.append("KQkq".charAt(i));
+                }
+            }
+        }
+        fen.append(' ');
+        if (enPassantSquare < 0) {
+            fen.append('-');
+        } else {
+            fen.append((char) ('a' + colOf(enPassantSquare))).append((char) ('8' - rowOf(enPassantSquare)));
+        }
+        return fen.append(' ').append(halfMoveClock).append(' ').append(fullMoveNumber).toString();
+    }
+}
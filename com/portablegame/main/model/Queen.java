@@ -1,28 +1,32 @@
 package com.portablegame.main.model;
 
+import static com.portablegame.main.model.Bitboards.*;
+
 public class Queen extends Piece {
-    public Queen(String color, int row, int col, Board board) {
-        super(color, row, col, board);
+    Queen(int side) {
+        super(side);
     }
 
     @Override
-    public boolean isValidMove(int toRow, int toCol) {
-        int rowDiff = Math.abs(toRow - row);
-        int colDiff = Math.abs(toCol - col);
+    public int getType() {
+        return QUEEN;
+    }
 
-        if (!(rowDiff == 0 || colDiff == 0 || rowDiff == colDiff)) return false;
-        if (!board.isPathClear(row, col, toRow, toCol)) return false;
-        Piece target = board.getPieceAt(toRow, toCol);
+    @Override
+    public boolean isValidMove(Board board, int from, int to) {
+        if (((Attacks.rookRays(from) | Attacks.bishopRays(from)) & bit(to)) == 0) return false;
+        if (!board.isPathClear(from, to)) return false;
+        Piece target = board.getPieceAt(to);
         return target == null || isOpponent(target);
     }
 
     @Override
     public String getSymbol() {
-        return color.equals("white") ? "♕" : "♛";
+        return side == WHITE ? "♕" : "♛";
     }
 
     @Override
     public String getFENSymbol() {
-        return color.equals("white") ? "Q" : "q";
+        return side == WHITE ? "Q" : "q";
     }
 }
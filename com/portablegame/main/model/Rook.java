@@ -1,51 +1,38 @@
 package com.portablegame.main.model;
 
-public class Rook extends Piece {
-    private boolean hasMoved = false;
+import static com.portablegame.main.model.Bitboards.*;
 
-    public Rook(String color, int row, int col, Board board) {
-        super(color, row, col, board);
+public class Rook extends Piece {
+    Rook(int side) {
+        super(side);
     }
 
     @Override
-    public boolean isValidMove(int toRow, int toCol) {
-        if (row == toRow && col == toCol) {
-            return false;
-        }
+    public int getType() {
+        return ROOK;
+    }
 
-        if (row != toRow && col != toCol) {
+    @Override
+    public boolean isValidMove(Board board, int from, int to) {
+        if ((Attacks.rookRays(from) & bit(to)) == 0) {
             return false;
         }
 
-        if (!board.isPathClear(row, col, toRow, toCol)) {
+        if (!board.isPathClear(from, to)) {
             return false;
         }
 
-        Piece target = board.getPieceAt(toRow, toCol);
-        return target == null || !target.getColor().equals(color);
-    }
-
-    @Override
-    public void moveTo(int toRow, int toCol) {
-        super.moveTo(toRow, toCol);
-        hasMoved = true;
-    }
-
-    public boolean hasMoved() {
-        return hasMoved;
-    }
-
-    public void setHasMoved(boolean hasMoved) {
-        this.hasMoved = hasMoved;
+        Piece target = board.getPieceAt(to);
+        return target == null || target.getSide() != side;
     }
 
     @Override
     public String getSymbol() {
-        return color.equals("white") ? "♖" : "♜";
+        return side == WHITE ? "♖" : "♜";
     }
 
     @Override
     public String getFENSymbol() {
-        return color.equals("white") ? "R" : "r";
+        return side == WHITE ? "R" : "r";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package com.portablegame.main.model;
+
+/**
+ * Single-pass decoder for standard algebraic notation. A token is read once, left to right, and its
+ * parts come back packed into an int: target square (bits 0-5), moving piece type (6-8), source file
+ * + 1 and source row + 1 when disambiguated (9-12, 13-16, zero when absent), promotion piece type
+ * (17-19, zero when none) and the capture, check, mate and castling flags. Nothing is allocated.
+ *
+ * Accepts the same tokens as the pattern it replaces: piece moves with optional file and/or rank
+ * disambiguation, pawn pushes, pawn captures written with x, promotions written with =, and
+ * O-O / O-O-O, each with an optional trailing + or #.
+ */
+public final class San {
+    public static final int INVALID = -1;
+    public static final int CAPTURE = 1 << 20;
+    public static final int CHECK = 1 << 21;
+    public static final int MATE = 1 << 22;
+    public static final int CASTLE_KINGSIDE = 1 << 23;
+    public static final int CASTLE_QUEENSIDE = 1 << 24;
+
+    private San() {}
+
+    public static int decode(CharSequence text) {
+        int end = text.length();
+        int flags = 0;
+        if (end > 0 && text.charAt(end - 1) == '+') {
+            flags |= CHECK;
+            end--;
+        } else if (end > 0 && text.charAt(end - 1) == '#') {
+            flags |= MATE;
+            end--;
+        }
+        if (end == 0) {
+            return INVALID;
+        }
+
+        if (text.charAt(0) == 'O') {
+            if (end == 3 && isCastlingPrefix(text)) {
+                return flags | CASTLE_KINGSIDE | Bitboards.KING << 6;
+            }
+            if (end == 5 && isCastlingPrefix(text) && text.charAt(3) == '-' && text.charAt(4) == 'O') {
+                return flags | CASTLE_QUEENSIDE | Bitboards.KING << 6;
+            }
+            return INVALID;
+        }
+
+        if (end >= 4 && text.charAt(end - 2) == '=') {
+            int promotion = pieceOf(text.charAt(end - 1));
+            if (promotion < Bitboards.KNIGHT || promotion > Bitboards.QUEEN) {
+                return INVALID;
+            }
+            flags |= promotion << 17;
+            end -= 2;
+        }
+        if (end < 2) {
+            return INVALID;
+        }
+        int targetCol = file(text.charAt(end - 2));
+        int targetRow = row(text.charAt(end - 1));
+        if (targetCol < 0 || targetRow < 0) {
+            return INVALID;
+        }
+        flags |= Bitboards.square(targetRow, targetCol);
+
+        int type = pieceOf(text.charAt(0));
+        if (type < 0) {
+            // pawn: e4 or exd5
+            if (end == 2) {
+                return flags | Bitboards.PAWN << 6;
+            }
+            if (end == 4 && text.charAt(1) == 'x' && file(text.charAt(0)) >= 0) {
+                return flags | CAPTURE | Bitboards.PAWN << 6 | (file(text.charAt(0)) + 1) << 9;
+            }
+            return INVALID;
+        }
+
+        // piece: letter, optional file, optional rank, optional x, then the target
+        int i = 1;
+        int middle = end - 2;
+        if (i < middle && file(text.charAt(i)) >= 0) {
+            flags |= (file(text.charAt(i)) + 1) << 9;
+            i++;
+        }
+        if (i < middle && row(text.charAt(i)) >= 0) {
+            flags |= (row(text.charAt(i)) + 1) << 13;
+            i++;
+        }
+        if (i < middle && text.charAt(i) == 'x') {
+            flags |= CAPTURE;
+            i++;
+        }
+        return i == middle ? flags | type << 6 : INVALID;
+    }
+
+    private static boolean isCastlingPrefix(CharSequence text) {
+        return text.charAt(0) == 'O' && text.charAt(1) == '-' && text.charAt(2) == 'O';
+    }
+
+    // K/Q/R/B/N letters to piece types; -1 for anything else, including pawn file letters
+    private static int pieceOf(char c) {
+        switch (c) {
+            case 'N': return Bitboards.KNIGHT;
+            case 'B': return Bitboards.BISHOP;
+            case 'R': return Bitboards.ROOK;
+            case 'Q': return Bitboards.QUEEN;
+            case 'K': return Bitboards.KING;
+            default: return -1;
+        }
+    }
+
+    private static int file(char c) {
+        return c >= 'a' && c <= 'h' ? c - 'a' : -1;
+    }
+
+    private static int row(char c) {
+        return c >= '1' && c <= '8' ? '8' - c : -1;
+    }
+
+    public static int target(int san) { return san & 0x3F; }
+    public static int pieceType(int san) { return (san >>> 6) & 0x7; }
+    // source file 0-7, or -1 when the token does not give it
+    public static int fromCol(int san) { return ((san >>> 9) & 0xF) - 1; }
+    // source row 0-7 (0 = rank 8), or -1 when the token does not give it
+    public static int fromRow(int san) { return ((san >>> 13) & 0xF) - 1; }
+    public static int promotionType(int san) { return (san >>> 17) & 0x7; }
+    public static boolean isCapture(int san) { return (san & CAPTURE) != 0; }
+    public static boolean isCheck(int san) { return (san & (CHECK | MATE)) != 0; }
+    public static boolean isMate(int san) { return (san & MATE) != 0; }
+    public static boolean isCastling(int san) { return (san & (CASTLE_KINGSIDE | CASTLE_QUEENSIDE)) != 0; }
+    public static boolean isKingsideCastling(int san) { return (san & CASTLE_KINGSIDE) != 0; }
+}
@@ -0,0 +1,33 @@
+package com.portablegame.main.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for the incrementally updated 64-bit position hash kept by {@link Board}.
+ * The seed is fixed so keys are stable across runs.
+ */
+public final class Zobrist {
+    static final long[][] PIECE_SQUARE = new long[12][64];
+    static final long[] CASTLING = new long[16];
+    static final long[] EN_PASSANT_FILE = new long[8];
+    static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C0FFEEL);
+        for (long[] keys : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        // no rights must hash to zero so an empty board starts from key 0
+        for (int rights = 1; rights < 16; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {}
+}
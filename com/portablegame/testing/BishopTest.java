@@ -1,15 +1,15 @@
 package com.portablegame.testing;
 
-import com.portablegame.main.model.Bishop;
+import com.portablegame.main.model.Bitboards;
 import com.portablegame.main.model.Board;
-import com.portablegame.main.model.Pawn;
+import com.portablegame.main.model.Piece;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class BishopTest {
     private Board board;
-    private Bishop bishop;
+    private Piece bishop;
 
     @BeforeEach
     public void setUp() {
@@ -19,31 +19,35 @@ public class BishopTest {
                 board.setPieceAt(i, j, null);
             }
         }
-        bishop = new Bishop("white", 3, 3, board);
+        bishop = Piece.of(Bitboards.WHITE, Bitboards.BISHOP);
         board.setPieceAt(3, 3, bishop);
     }
 
+    private boolean canMove(int toRow, int toCol) {
+        return bishop.isValidMove(board, Bitboards.square(3, 3), Bitboards.square(toRow, toCol));
+    }
+
     @Test
     public void testValidMoves() {
-        assertTrue(bishop.isValidMove(0, 0));
-        assertTrue(bishop.isValidMove(7, 7));
-        assertTrue(bishop.isValidMove(0, 6));
-        assertTrue(bishop.isValidMove(6, 0));
+        assertTrue(canMove(0, 0));
+        assertTrue(canMove(7, 7));
+        assertTrue(canMove(0, 6));
+        assertTrue(canMove(6, 0));
     }
 
     @Test
     public void testBlockedPath() {
-        board.setPieceAt(4, 4, new Pawn("white", 4, 4, board));
-        assertFalse(bishop.isValidMove(5, 5));
+        board.setPieceAt(4, 4, Piece.of(Bitboards.WHITE, Bitboards.PAWN));
+        assertFalse(canMove(5, 5));
 
-        board.setPieceAt(4, 4, new Pawn("black", 4, 4, board));
-        assertTrue(bishop.isValidMove(4, 4));
+        board.setPieceAt(4, 4, Piece.of(Bitboards.BLACK, Bitboards.PAWN));
+        assertTrue(canMove(4, 4));
     }
 
     @Test
     public void testInvalidMoves() {
-        assertFalse(bishop.isValidMove(3, 0));
-        assertFalse(bishop.isValidMove(0, 3));
-        assertFalse(bishop.isValidMove(4, 5));
+        assertFalse(canMove(3, 0));
+        assertFalse(canMove(0, 3));
+        assertFalse(canMove(4, 5));
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,11 @@
 package com.portablegame.testing;
 
 import com.portablegame.main.model.*;
+import com.portablegame.util.BoardPool;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.StringWriter;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class BoardTest {
@@ -64,7 +67,7 @@ public class BoardTest {
     @Test
     public void testPromotion() {
         board.setPieceAt(1, 0, null);
-        board.setPieceAt(6, 0, new Pawn("white", 6, 0, board));
+        board.setPieceAt(6, 0, Piece.of(Bitboards.WHITE, Bitboards.PAWN));
 
         assertTrue(board.tryMove("a2", "a1", "Q"));
         assertTrue(board.getPieceAt(7, 0) instanceof Queen);
@@ -75,9 +78,401 @@ public class BoardTest {
         board.setPieceAt(6, 4, null);
         board.setPieceAt(1, 3, null);
         board.setPieceAt(0, 3, null);
-        board.setPieceAt(3, 4, new Queen("black", 3, 4, board));
+        board.setPieceAt(3, 4, Piece.of(Bitboards.BLACK, Bitboards.QUEEN));
 
         assertTrue(board.isKingInCheck("white"));
         assertFalse(board.tryMove("e1", "e2", null));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPositionKeyTransposition() {
+        long start = board.positionKey();
+        board.tryMove("g1", "f3", null);
+        assertNotEquals(start, board.positionKey());
+        board.tryMove("g8", "f6", null);
+        board.tryMove("f3", "g1", null);
+        board.tryMove("f6", "g8", null);
+        assertEquals(start, board.positionKey());
+
+        Board other = new Board();
+        other.tryMove("d2", "d4", null);
+        other.tryMove("g8", "f6", null);
+        other.tryMove("g1", "f3", null);
+        other.tryMove("d7", "d5", null);
+        Board transposed = new Board();
+        transposed.tryMove("g1", "f3", null);
+        transposed.tryMove("g8", "f6", null);
+        transposed.tryMove("d2", "d4", null);
+        transposed.tryMove("d7", "d5", null);
+        assertEquals(other.positionKey(), transposed.positionKey());
+    }
+
+    @Test
+    public void testAttackMapsMatchFullRecompute() {
+        board.setAttackMapVerification(true);
+        String[][] moves = {
+                {"e2", "e4"}, {"d7", "d5"}, {"e4", "d5"}, {"g8", "f6"}, {"f1", "b5"}, {"c7", "c6"},
+                {"d5", "c6"}, {"d8", "b6"}, {"c6", "b7"}, {"b8", "d7"}, {"b7", "a8"}, {"e7", "e5"},
+                {"g1", "f3"}, {"f8", "c5"}, {"e1", "g1"}, {"e8", "g8"}
+        };
+        for (String[] move : moves) {
+            assertTrue(board.tryMove(move[0], move[1], "Q"), move[0] + "-" + move[1]);
+            assertTrue(board.attackMapsConsistent());
+        }
+        assertTrue(board.getPieceAt(0, 0) instanceof Queen);
+        assertTrue(board.isSquareUnderAttack(0, 2, "white"));
+        assertTrue((board.getAttackers(1, 3) & (1L << (3 * 8 + 1))) != 0);
+    }
+
+    @Test
+    public void testResetKeepsAttackMapVerification() {
+        board.setAttackMapVerification(true);
+        board.tryMove("e2", "e4", null);
+        board.reset();
+        assertTrue(board.isAttackMapVerification());
+        assertTrue(board.tryMove("e2", "e4", null));
+
+        board.setAttackMapVerification(false);
+        board.reset();
+        assertFalse(board.isAttackMapVerification());
+    }
+
+    @Test
+    public void testMakeUnmakeRestoresPosition() {
+        String[][] moves = {
+                {"e2", "e4"}, {"b8", "c6"}, {"e4", "e5"}, {"d7", "d6"}, {"g1", "f3"}, {"c8", "g4"},
+                {"f1", "e2"}, {"f7", "f5"}
+        };
+        for (String[] move : moves) {
+            assertTrue(board.tryMove(move[0], move[1], null), move[0] + "-" + move[1]);
+        }
+        String fen = board.toFEN();
+        long key = board.positionKey();
+
+        int enPassant = board.encodeMove(3, 4, 2, 5, null);
+        assertTrue(Move.isEnPassant(enPassant));
+        board.makeMove(enPassant);
+        assertNull(board.getPieceAt(3, 5));
+        int castle = board.encodeMove(0, 4, 0, 6, null);
+        board.makeMove(board.encodeMove(1, 4, 2, 4, null));
+        board.makeMove(board.encodeMove(7, 4, 7, 6, null));
+        assertTrue(board.getPieceAt(7, 5) instanceof Rook);
+        assertTrue(board.isWhiteKingMoved());
+        board.unmakeMove();
+        board.unmakeMove();
+        board.unmakeMove();
+        assertTrue(Move.isCastling(castle));
+
+        assertEquals(fen, board.toFEN());
+        assertEquals(key, board.positionKey());
+        assertTrue(board.attackMapsConsistent());
+    }
+
+    @Test
+    public void testGenerateLegalMoves() {
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(moves);
+        assertEquals(20, moves.size());
+        assertTrue(moves.contains(board.encodeMove(6, 4, 4, 4, null)));
+
+        board.tryMove("f2", "f3", null);
+        board.tryMove("e7", "e5", null);
+        board.tryMove("g2", "g4", null);
+        board.tryMove("d8", "h4", null);
+        board.generateLegalMoves(moves);
+        assertEquals(0, moves.size());
+        assertTrue(board.isCheckmate("white"));
+    }
+
+    @Test
+    public void testPinnedPieceHasNoLegalMoves() {
+        board.tryMove("e2", "e4", null);
+        board.tryMove("d7", "d6", null);
+        board.tryMove("d2", "d4", null);
+        board.tryMove("b8", "d7", null);
+        board.tryMove("f1", "b5", null);
+
+        assertEquals(1L << (8 + 3), board.getPinnedPieces("black"));
+        assertEquals(0L, board.getCheckers("black"));
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            assertNotEquals(8 + 3, Move.from(moves.get(i)));
+        }
+        assertFalse(board.tryMove("d7", "f6", null));
+    }
+
+    @Test
+    public void testCopyIsIndependentAndSharesPieces() {
+        board.tryMove("e2", "e4", null);
+        Board copy = new Board(board);
+        assertEquals(board.toFEN(), copy.toFEN());
+        assertEquals(board.positionKey(), copy.positionKey());
+        assertSame(board.getPieceAt(4, 4), copy.getPieceAt(4, 4));
+
+        copy.tryMove("e7", "e5", null);
+        assertNull(board.getPieceAt(3, 4));
+        assertTrue(copy.getPieceAt(3, 4) instanceof Pawn);
+        assertEquals("black", board.getCurrentPlayer());
+        assertTrue(copy.attackMapsConsistent());
+    }
+
+    @Test
+    public void testSnapshotCarriesFullGameState() {
+        board.tryMove("g1", "f3", null);
+        board.tryMove("g8", "f6", null);
+        board.tryMove("f3", "g1", null);
+        board.tryMove("f6", "g8", null);
+        board.tryMove("e2", "e4", null);
+        String start = board.toFEN();
+        int doublePush = board.encodeMove(1, 3, 3, 3, null);
+        board.makeMove(doublePush);
+
+        Board snapshot = board.snapshot();
+        assertEquals(board.toFEN(), snapshot.toFEN());
+        assertEquals(board.getMoveHistory(), snapshot.getMoveHistory());
+        assertEquals(board.getRepetitionCount(), snapshot.getRepetitionCount());
+        assertEquals(board.getEnPassantSquare(), snapshot.getEnPassantSquare());
+
+        Board target = Board.fromFEN("8/8/8/4k3/8/8/8/4K3 w - - 0 1");
+        board.copyInto(target);
+        board.unmakeMove();
+        assertEquals(start, board.toFEN());
+        assertNotEquals(start, target.toFEN());
+        target.unmakeMove();
+        assertEquals(start, target.toFEN());
+        assertTrue(target.attackMapsConsistent());
+        assertTrue(snapshot.tryMove("e4", "d5", null));
+        assertTrue(board.getPieceAt(4, 4) instanceof Pawn);
+    }
+
+    @Test
+    public void testFromFENRejectsIllegalPositions() {
+        String[] illegal = {
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQ1BNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKKNR w KQkq - 0 1",
+                "4k3/8/8/8/8/8/8/4K2P w - - 0 1",
+                "4k3/4Q3/8/8/8/8/8/4K3 w - - 0 1",
+                "4k3/8/8/8/8/8/8/4K3 w K - 0 1",
+                "4k3/8/8/8/8/8/8/R3K3 w K - 0 1",
+                "4k3/8/8/8/4p3/8/8/4K3 w - e3 0 1",
+                "4k3/8/8/8/4P3/8/8/4K3 b - e4 0 1",
+                "4k3/8/8/8/4P3/8/8/4K3 b - d3 0 1"
+        };
+        for (String fen : illegal) {
+            assertThrows(IllegalArgumentException.class, () -> Board.fromFEN(fen), fen);
+        }
+
+        Board board = Board.fromFEN("4k3/8/8/8/4P3/8/8/R3K3 b Q e3 0 1");
+        assertEquals(5 * 8 + 4, board.getEnPassantSquare());
+        assertEquals("black", board.getCurrentPlayer());
+    }
+
+    @Test
+    public void testFromFENBoundsMoveCounters() {
+        String[] bad = {
+                "4k3/8/8/8/8/8/8/4K3 w - - 0 0",
+                "4k3/8/8/8/8/8/8/4K3 w - - 65536 40000",
+                "4k3/8/8/8/8/8/8/4K3 w - - 0 65536",
+                "4k3/8/8/8/8/8/8/4K3 w - - 4294967297 1",
+                "4k3/8/8/8/8/8/8/4K3 w - - -1 1"
+        };
+        for (String fen : bad) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> Board.fromFEN(fen), fen);
+            assertTrue(e.getMessage().startsWith("Bad move counter"), e.getMessage());
+        }
+
+        Board board = Board.fromFEN("4k3/8/8/8/8/8/8/4K3 w - - 65534 40000");
+        board.makeMove(Move.of(Bitboards.square(7, 4), Bitboards.square(7, 3)));
+        assertEquals(65535, board.getHalfMoveClock());
+        board.unmakeMove();
+        assertEquals(65534, board.getHalfMoveClock());
+        assertEquals(40000, board.getFullMoveNumber());
+    }
+
+    @Test
+    public void testFENTracksChangedRanks() throws IOException {
+        String start = board.toFEN();
+        assertSame(start, board.toFEN());
+
+        board.tryMove("e2", "e4", null);
+        board.tryMove("g8", "f6", null);
+        board.tryMove("e4", "e5", null);
+        board.tryMove("d7", "d5", null);
+        String fen = board.toFEN();
+        assertEquals("rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3", fen);
+
+        StringWriter writer = new StringWriter();
+        board.appendFEN(writer);
+        assertEquals(fen, writer.toString());
+
+        board.setPieceAt(3, 3, null);
+        assertEquals(board.toPosition().toFEN(), board.toFEN());
+        assertTrue(board.toFEN().startsWith("rnbqkb1r/ppp1pppp/5n2/4P3/"));
+    }
+
+    @Test
+    public void testThreefoldRepetitionFromKeyRing() {
+        String[][] shuffle = {{"g1", "f3"}, {"g8", "f6"}, {"f3", "g1"}, {"f6", "g8"}};
+        for (String[] move : shuffle) {
+            board.tryMove(move[0], move[1], null);
+        }
+        assertEquals(2, board.getRepetitionCount());
+        assertFalse(board.isThreefoldRepetition());
+        for (String[] move : shuffle) {
+            board.tryMove(move[0], move[1], null);
+        }
+        assertEquals(3, board.getRepetitionCount());
+        assertTrue(board.isThreefoldRepetition());
+        assertTrue(board.isDraw());
+
+        board.tryMove("e2", "e4", null);
+        assertEquals(1, board.getRepetitionCount());
+        assertEquals("white: g1-f3", board.getMoveHistory().get(0));
+        assertEquals("white: e2-e4", board.getMoveHistory().get(8));
+    }
+
+    @Test
+    public void testLongGameKeepsRecentHistoryOnly() {
+        String[][] shuffle = {{"g1", "f3"}, {"g8", "f6"}, {"f3", "g1"}, {"f6", "g8"}};
+        for (int i = 0; i < 300; i++) {
+            board.tryMove(shuffle[i % 4][0], shuffle[i % 4][1], null);
+        }
+        assertEquals(256, board.getMoveHistory().size());
+        assertTrue(board.isThreefoldRepetition());
+    }
+
+    @Test
+    public void testLightSquareMask() {
+        long light = Bitboards.LIGHT_SQUARES;
+        assertNotEquals(0L, light & Bitboards.bit(Bitboards.square(0, 0)));
+        assertNotEquals(0L, light & Bitboards.bit(Bitboards.square(7, 7)));
+        assertEquals(0L, light & Bitboards.bit(Bitboards.square(7, 0)));
+        assertEquals(0L, light & Bitboards.bit(Bitboards.square(0, 7)));
+        assertEquals(32, Long.bitCount(light));
+
+        // the light-square bishop count is the third 4-bit field of the white half of the signature
+        long signature = Board.fromFEN("4k3/8/8/8/8/8/8/4K2B w - - 0 1").getMaterialSignature();
+        assertEquals(1L, signature >>> 8 & 0xF);
+        assertEquals(0L, signature >>> 12 & 0xF);
+    }
+
+    @Test
+    public void testInsufficientMaterialFollowsCapturesAndPromotions() {
+        assertFalse(board.isInsufficientMaterial());
+        assertTrue(Board.fromFEN("4k3/8/8/8/8/8/8/4K2B w - - 0 1").isInsufficientMaterial());
+        assertTrue(Board.fromFEN("b3k3/8/8/8/8/8/8/4K2B w - - 0 1").isInsufficientMaterial());
+        assertFalse(Board.fromFEN("4k3/8/8/8/8/8/1B6/4K2B w - - 0 1").isInsufficientMaterial());
+        assertFalse(Board.fromFEN("4k3/8/8/8/8/8/8/4KN1B w - - 0 1").isInsufficientMaterial());
+
+        Board capture = Board.fromFEN("4k3/8/8/8/8/8/4r3/4K2B w - - 0 1");
+        assertFalse(capture.isInsufficientMaterial());
+        capture.makeMove(capture.encodeMove(7, 4, 6, 4, null));
+        assertTrue(capture.isInsufficientMaterial());
+        assertTrue(capture.isDraw());
+        capture.unmakeMove();
+        assertFalse(capture.isInsufficientMaterial());
+
+        Board knight = Board.fromFEN("8/4P3/8/8/8/8/k7/4K3 w - - 0 1");
+        Board queen = knight.snapshot();
+        assertTrue(knight.tryMove("e7", "e8", "N"));
+        assertTrue(knight.isInsufficientMaterial());
+        assertTrue(queen.tryMove("e7", "e8", "Q"));
+        assertFalse(queen.isInsufficientMaterial());
+        assertEquals(Board.fromFEN(queen.toFEN()).getMaterialSignature(), queen.getMaterialSignature());
+    }
+
+    @Test
+    public void testStatusIsComputedOncePerPosition() {
+        GameStatus start = board.status();
+        assertFalse(start.isCheck() || start.isDraw() || start.isGameOver());
+        assertSame(start, board.status());
+
+        board.tryMove("f2", "f3", null);
+        board.tryMove("e7", "e5", null);
+        board.tryMove("g2", "g4", null);
+        board.tryMove("d8", "h4", null);
+        GameStatus mate = board.status();
+        assertNotSame(start, mate);
+        assertTrue(mate.isCheck());
+        assertTrue(mate.isCheckmate());
+        assertEquals(Bitboards.WHITE, mate.getSideToMove());
+        assertTrue(board.isCheckmate("white"));
+        assertSame(mate, board.status());
+
+        GameStatus stalemate = Board.fromFEN("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1").status();
+        assertTrue(stalemate.isStalemate());
+        assertTrue(stalemate.isDraw());
+        assertFalse(stalemate.isCheck());
+    }
+
+    @Test
+    public void testGivesCheckMatchesPlayedMove() {
+        String[] fens = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                "8/8/8/R2pP2k/8/8/8/K7 w - d6 0 1",
+                "5k2/8/8/8/8/8/8/4K2R w K - 0 1"
+        };
+        int checks = 0;
+        for (String fen : fens) {
+            checks += compareGivesCheck(Board.fromFEN(fen), 2);
+        }
+        assertTrue(checks > 0);
+
+        Board enPassant = Board.fromFEN("8/8/8/R2pP2k/8/8/8/K7 w - d6 0 1");
+        assertTrue(enPassant.givesCheck(Move.of(Bitboards.square(3, 4), Bitboards.square(2, 3), 0, Move.FLAG_EN_PASSANT)));
+        Board castle = Board.fromFEN("5k2/8/8/8/8/8/8/4K2R w K - 0 1");
+        assertTrue(castle.givesCheck(Move.of(Bitboards.square(7, 4), Bitboards.square(7, 6), 0, Move.FLAG_CASTLING)));
+        assertEquals("8/8/8/R2pP2k/8/8/8/K7 w - d6 0 1", enPassant.toFEN());
+    }
+
+    private int compareGivesCheck(Board position, int depth) {
+        MoveList moves = new MoveList();
+        position.generateLegalMoves(moves);
+        int checks = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            boolean predicted = position.givesCheck(move);
+            position.makeMove(move);
+            assertEquals(position.isKingInCheck(position.getSideToMove()), predicted, Move.toUci(move));
+            checks += predicted ? 1 : 0;
+            if (depth > 1) {
+                checks += compareGivesCheck(position, depth - 1);
+            }
+            position.unmakeMove();
+        }
+        return checks;
+    }
+
+    @Test
+    public void testResetReusesBoard() throws Exception {
+        String start = board.toFEN();
+        String[][] shuffle = {{"g1", "f3"}, {"g8", "f6"}, {"f3", "g1"}, {"f6", "g8"}};
+        for (String[] move : shuffle) {
+            board.tryMove(move[0], move[1], null);
+        }
+        board.tryMove("e2", "e4", null);
+        board.reset();
+        assertEquals(start, board.toFEN());
+        assertEquals(1, board.getRepetitionCount());
+        assertTrue(board.getMoveHistory().isEmpty());
+        assertTrue(board.tryMove("e2", "e4", null));
+
+        board.reset("4k3/8/8/8/8/8/8/4K2B w - - 0 1");
+        assertTrue(board.isInsufficientMaterial());
+        board.reset();
+        assertFalse(board.isInsufficientMaterial());
+        assertEquals(new Board().positionKey(), board.positionKey());
+
+        Board pooled = BoardPool.acquire();
+        pooled.tryMove("d2", "d4", null);
+        assertSame(pooled, BoardPool.acquire());
+        assertEquals(start, pooled.toFEN());
+        Board[] other = new Board[1];
+        Thread worker = new Thread(() -> other[0] = BoardPool.acquire());
+        worker.start();
+        worker.join();
+        assertNotSame(pooled, other[0]);
+    }
+}
@@ -0,0 +1,53 @@
+package com.portablegame.testing;
+
+import com.portablegame.main.model.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactBoardTest {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    public void testRoundTripKeepsPosition() {
+        for (String fen : new String[]{KIWIPETE, "8/8/8/R2pP2k/8/8/8/K7 w - d6 0 1"}) {
+            Board board = Board.fromFEN(fen);
+            CompactBoard compact = new CompactBoard(board);
+            assertEquals(fen, compact.toFEN());
+            assertEquals(board.positionKey(), compact.positionKey());
+            assertEquals(board.positionKey(), compact.toBoard().positionKey());
+            for (int square = 0; square < 64; square++) {
+                assertSame(board.getPieceAt(square), compact.getPieceAt(square));
+            }
+        }
+    }
+
+    @Test
+    public void testMovesAndRepetitionSurviveCompaction() {
+        CompactBoard compact = new CompactBoard();
+        String[][] shuffle = {{"g1", "f3"}, {"g8", "f6"}, {"f3", "g1"}, {"f6", "g8"}};
+        for (int i = 0; i < 8; i++) {
+            assertTrue(compact.tryMove(shuffle[i % 4][0], shuffle[i % 4][1], null));
+        }
+        assertTrue(compact.status().isRepetition());
+        assertEquals(8, compact.getHalfMoveClock());
+        assertFalse(compact.tryMove("e2", "e5", null));
+
+        assertTrue(compact.tryMove("e2", "e4", null));
+        assertEquals(Bitboards.BLACK, compact.getSideToMove());
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 5", compact.toFEN());
+        assertFalse(compact.status().isRepetition());
+    }
+
+    @Test
+    public void testStoreReusesCompactBoard() {
+        Board board = Board.fromFEN(KIWIPETE);
+        CompactBoard compact = new CompactBoard();
+        compact.store(board);
+        assertEquals(KIWIPETE, compact.toFEN());
+        Board target = new Board();
+        compact.loadInto(target);
+        assertEquals(KIWIPETE, target.toFEN());
+        assertTrue(compact.tryMove(Move.of(Bitboards.square(7, 4), Bitboards.square(7, 6), 0, Move.FLAG_CASTLING)));
+        assertEquals("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R4RK1 b kq - 1 1", compact.toFEN());
+    }
+}
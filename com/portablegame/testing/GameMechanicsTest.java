@@ -1,10 +1,15 @@
 package com.portablegame.testing;
+import com.portablegame.main.model.Bitboards;
 import com.portablegame.main.model.Board;
-import com.portablegame.main.model.King;
 import com.portablegame.main.model.Knight;
-import com.portablegame.main.model.Queen;
+import com.portablegame.main.model.Move;
+import com.portablegame.main.model.MoveList;
+import com.portablegame.main.model.MoveValidation;
+import com.portablegame.main.model.Piece;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.util.HashSet;
+import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class GameMechanicsTest {
@@ -21,7 +26,7 @@ public class GameMechanicsTest {
         board.setPieceAt(6, 4, null);
         board.setPieceAt(1, 3, null);
         board.setPieceAt(0, 3, null);
-        board.setPieceAt(3, 4, new Queen("black", 3, 4, board));
+        board.setPieceAt(3, 4, Piece.of(Bitboards.BLACK, Bitboards.QUEEN));
 
         assertTrue(board.isKingInCheck("white"));
         assertFalse(board.isKingInCheck("black"));
@@ -49,4 +54,80 @@ public class GameMechanicsTest {
 
         assertTrue(board.isDraw());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFiftyMoveRuleNeedsHundredQuietPlies() {
+        Set<Long> seen = new HashSet<>();
+        seen.add(board.positionKey());
+        MoveList moves = new MoveList();
+        for (int ply = 1; ply <= 100; ply++) {
+            assertFalse(board.status().isFiftyMoveRule(), "flagged after " + (ply - 1) + " plies");
+            assertTrue(playNewQuietMove(moves, seen), "no fresh quiet move at ply " + ply);
+            assertEquals(1, board.getRepetitionCount());
+            assertFalse(board.status().isRepetition());
+        }
+
+        assertEquals(100, board.getHalfMoveClock());
+        assertTrue(board.status().isFiftyMoveRule());
+        assertTrue(board.isDraw());
+    }
+
+    // plays the first legal piece move that neither captures, checks nor reaches a position seen before
+    private boolean playNewQuietMove(MoveList moves, Set<Long> seen) {
+        board.generateLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (board.getPieceAt(Move.from(move)).getType() == Bitboards.PAWN
+                    || board.getPieceAt(Move.to(move)) != null || Move.isCastling(move)) {
+                continue;
+            }
+            board.makeMove(move);
+            if (!board.status().isCheck() && seen.add(board.positionKey())) {
+                return true;
+            }
+            board.unmakeMove();
+        }
+        return false;
+    }
+
+    @Test
+    public void testInsufficientMaterialAndKingTracking() {
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                board.setPieceAt(row, col, null);
+            }
+        }
+        board.setPieceAt(7, 4, Piece.of(Bitboards.WHITE, Bitboards.KING));
+        board.setPieceAt(0, 4, Piece.of(Bitboards.BLACK, Bitboards.KING));
+        board.setPieceAt(5, 5, Piece.of(Bitboards.WHITE, Bitboards.KNIGHT));
+
+        assertEquals(7 * 8 + 4, board.getKingSquare("white"));
+        assertEquals(1, board.getPieceCount("white", Knight.class));
+        assertTrue(board.isDraw());
+
+        board.setPieceAt(4, 4, Piece.of(Bitboards.BLACK, Bitboards.QUEEN));
+        assertFalse(board.isDraw());
+        assertTrue(board.isKingInCheck("white"));
+    }
+
+    @Test
+    public void testReusedValidationStartsEachMoveClean() {
+        MoveValidation validation = new MoveValidation(1, "e5", "white");
+        assertFalse(validation.validateMove("e5", "white", board));
+        assertFalse(validation.getErrors().isEmpty());
+
+        assertSame(validation, validation.reset(1, "e4", "white"));
+        assertTrue(validation.getErrors().isEmpty());
+        assertTrue(validation.validateMove("e4", "white", board));
+        assertTrue(board.tryMove(validation.getMove()));
+
+        validation.reset(1, "Nf6", "black");
+        assertEquals("Nf6", validation.getOriginalNotation());
+        assertEquals("black", validation.getColor());
+        assertTrue(validation.validateMove("Nf6", "black", board));
+
+        Board other = new Board();
+        other.tryMove("d2", "d4", null);
+        assertSame(board.status(), other.status());
+    }
+}
@@ -0,0 +1,71 @@
+package com.portablegame.testing;
+
+import com.portablegame.main.model.*;
+import com.portablegame.util.GameReplay;
+import com.portablegame.util.PgnValidator;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameReplayTest {
+    private static final String OPERA_GAME = "[Event \"Paris\"]\n" +
+            "[Site \"Paris\"]\n" +
+            "[Date \"1858.11.02\"]\n" +
+            "[Round \"?\"]\n" +
+            "[White \"Morphy\"]\n" +
+            "[Black \"Duke Karl / Count Isouard\"]\n" +
+            "[Result \"1-0\"]\n\n" +
+            "1. e4 e5 2. Nf3 d6 3. d4 Bg4 4. dxe5 Bxf3 5. Qxf3 dxe5 6. Bc4 Nf6 7. Qb3 Qe7 " +
+            "8. Nc3 c6 9. Bg5 b5 10. Nxb5 cxb5 11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7 " +
+            "14. Rd1 Qe6 15. Bxd7+ Nxd7 16. Qb8+ Nxb8 17. Rd8# 1-0";
+
+    @Test
+    public void testSeekMatchesLinearReplay() {
+        GameReplay replay = new PgnValidator().replayGame(OPERA_GAME, 5);
+        assertEquals(33, replay.length());
+        assertEquals(7, replay.getSnapshotCount());
+
+        Board linear = new Board();
+        String[] fens = new String[replay.length() + 1];
+        fens[0] = linear.toFEN();
+        for (int ply = 1; ply <= replay.length(); ply++) {
+            assertTrue(linear.tryMove(replay.getMove(ply)));
+            fens[ply] = linear.toFEN();
+        }
+        assertTrue(linear.isCheckmate("black"));
+
+        for (int ply = 0; ply <= replay.length(); ply++) {
+            assertEquals(fens[ply], replay.seek(ply).toFEN());
+        }
+        for (int ply = replay.length(); ply >= 0; ply -= 3) {
+            assertEquals(fens[ply], replay.seek(ply).toFEN());
+        }
+        assertTrue(replay.boardAt(replay.length()).isCheckmate("black"));
+    }
+
+    @Test
+    public void testSeekOutsideGameIsRejected() {
+        GameReplay replay = new PgnValidator().replayGame(OPERA_GAME, GameReplay.DEFAULT_INTERVAL);
+        assertThrows(IllegalArgumentException.class, () -> replay.seek(-1));
+        assertThrows(IllegalArgumentException.class, () -> replay.seek(replay.length() + 1));
+        assertThrows(IllegalArgumentException.class, () -> new GameReplay(new Board(), 0));
+    }
+
+    @Test
+    public void testGameFromFENHeader() {
+        String game = "[Event \"Study\"]\n" +
+                "[Site \"?\"]\n" +
+                "[Date \"????.??.??\"]\n" +
+                "[Round \"?\"]\n" +
+                "[White \"?\"]\n" +
+                "[Black \"?\"]\n" +
+                "[Result \"0-1\"]\n" +
+                "[SetUp \"1\"]\n" +
+                "[FEN \"6k1/5ppp/8/8/1r6/8/P4PPP/6K1 b - - 0 30\"]\n\n" +
+                "30... Rb2 31. a3 Rb1# 0-1";
+        GameReplay replay = new PgnValidator().replayGame(game, 2);
+        assertEquals(3, replay.length());
+        assertTrue(replay.boardAt(3).isCheckmate("white"));
+        assertEquals("6k1/5ppp/8/8/8/P7/1r3PPP/6K1 b - - 0 31", replay.seek(2).toFEN());
+        assertFalse(new PgnValidator().validateGame(game).hasErrors());
+    }
+}
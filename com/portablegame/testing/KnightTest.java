@@ -1,49 +1,53 @@
 package com.portablegame.testing;
 
+import com.portablegame.main.model.Bitboards;
 import com.portablegame.main.model.Board;
-import com.portablegame.main.model.Knight;
-import com.portablegame.main.model.Pawn;
+import com.portablegame.main.model.Piece;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class KnightTest {
     private Board board;
-    private Knight knight;
+    private Piece knight;
 
     @BeforeEach
     public void setUp() {
         board = new Board();
-        knight = new Knight("white", 3, 3, board);
+        knight = Piece.of(Bitboards.WHITE, Bitboards.KNIGHT);
         board.setPieceAt(3, 3, knight);
     }
 
+    private boolean canMove(int toRow, int toCol) {
+        return knight.isValidMove(board, Bitboards.square(3, 3), Bitboards.square(toRow, toCol));
+    }
+
     @Test
     public void testValidMoves() {
-        assertTrue(knight.isValidMove(1, 2));
-        assertTrue(knight.isValidMove(1, 4));
-        assertTrue(knight.isValidMove(5, 2));
-        assertTrue(knight.isValidMove(5, 4));
-        assertTrue(knight.isValidMove(2, 1));
-        assertTrue(knight.isValidMove(2, 5));
-        assertTrue(knight.isValidMove(4, 1));
-        assertTrue(knight.isValidMove(4, 5));
+        assertTrue(canMove(1, 2));
+        assertTrue(canMove(1, 4));
+        assertTrue(canMove(5, 2));
+        assertTrue(canMove(5, 4));
+        assertTrue(canMove(2, 1));
+        assertTrue(canMove(2, 5));
+        assertTrue(canMove(4, 1));
+        assertTrue(canMove(4, 5));
     }
 
     @Test
     public void testInvalidMoves() {
-        assertFalse(knight.isValidMove(3, 4));
-        assertFalse(knight.isValidMove(4, 3));
-        assertFalse(knight.isValidMove(4, 4));
-        assertFalse(knight.isValidMove(0, 0));
+        assertFalse(canMove(3, 4));
+        assertFalse(canMove(4, 3));
+        assertFalse(canMove(4, 4));
+        assertFalse(canMove(0, 0));
     }
 
     @Test
     public void testJumpOverPieces() {
-        board.setPieceAt(2, 3, new Pawn("white", 2, 3, board));
-        board.setPieceAt(3, 4, new Pawn("black", 3, 4, board));
-        assertTrue(knight.isValidMove(1, 4));
+        board.setPieceAt(2, 3, Piece.of(Bitboards.WHITE, Bitboards.PAWN));
+        board.setPieceAt(3, 4, Piece.of(Bitboards.BLACK, Bitboards.PAWN));
+        assertTrue(canMove(1, 4));
     }
 
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.portablegame.testing;
+
+import com.portablegame.util.Perft;
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTest {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String ROOK_ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private static final String PROMOTIONS = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    private static final String DISCOVERED_CHECKS = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+    private static final String MIDDLEGAME = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+
+    @Test
+    public void testStartPosition() {
+        assertEquals(20, Perft.perft(Perft.START_POSITION, 1));
+        assertEquals(400, Perft.perft(Perft.START_POSITION, 2));
+        assertEquals(8902, Perft.perft(Perft.START_POSITION, 3));
+        assertEquals(197281, Perft.perft(Perft.START_POSITION, 4));
+    }
+
+    @Test
+    public void testKiwipete() {
+        assertEquals(48, Perft.perft(KIWIPETE, 1));
+        assertEquals(2039, Perft.perft(KIWIPETE, 2));
+        assertEquals(97862, Perft.perft(KIWIPETE, 3));
+    }
+
+    @Test
+    public void testEnPassantPinsInRookEndgame() {
+        assertEquals(14, Perft.perft(ROOK_ENDGAME, 1));
+        assertEquals(191, Perft.perft(ROOK_ENDGAME, 2));
+        assertEquals(2812, Perft.perft(ROOK_ENDGAME, 3));
+        assertEquals(43238, Perft.perft(ROOK_ENDGAME, 4));
+    }
+
+    @Test
+    public void testPromotionsAndCastling() {
+        assertEquals(6, Perft.perft(PROMOTIONS, 1));
+        assertEquals(264, Perft.perft(PROMOTIONS, 2));
+        assertEquals(9467, Perft.perft(PROMOTIONS, 3));
+    }
+
+    @Test
+    public void testDiscoveredChecks() {
+        assertEquals(44, Perft.perft(DISCOVERED_CHECKS, 1));
+        assertEquals(1486, Perft.perft(DISCOVERED_CHECKS, 2));
+        assertEquals(62379, Perft.perft(DISCOVERED_CHECKS, 3));
+    }
+
+    @Test
+    public void testMiddlegame() {
+        assertEquals(46, Perft.perft(MIDDLEGAME, 1));
+        assertEquals(2079, Perft.perft(MIDDLEGAME, 2));
+        assertEquals(89890, Perft.perft(MIDDLEGAME, 3));
+    }
+
+    @Test
+    public void testDivideAndParallelAgree() throws InterruptedException {
+        Map<String, Long> divide = Perft.divide(KIWIPETE, 3);
+        assertEquals(48, divide.size());
+        assertTrue(divide.containsKey("e1g1"));
+        assertTrue(divide.containsKey("e1c1"));
+        assertEquals(97862L, divide.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(97862L, Perft.perftParallel(KIWIPETE, 3, 4));
+    }
+}
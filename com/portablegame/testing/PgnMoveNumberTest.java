@@ -0,0 +1,70 @@
+package com.portablegame.testing;
+
+import com.portablegame.util.PgnParser;
+import com.portablegame.util.PgnValidator;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgnMoveNumberTest {
+    private static final String HEADERS = "[Event \"Test\"]\n" +
+            "[Site \"?\"]\n" +
+            "[Date \"????.??.??\"]\n" +
+            "[Round \"?\"]\n" +
+            "[White \"?\"]\n" +
+            "[Black \"?\"]\n" +
+            "[Result \"0-1\"]\n" +
+            "[SetUp \"1\"]\n";
+    private static final String BACK_RANK = "1r4k1/5ppp/8/8/8/8/P4PPP/6K1";
+
+    private static String game(String sideAndClocks, String moveText) {
+        return HEADERS + "[FEN \"" + BACK_RANK + " " + sideAndClocks + "\"]\n\n" + moveText;
+    }
+
+    @Test
+    public void testWhiteToMoveFenGame() {
+        String text = game("w - - 0 12", "12. a3 {rook lift} 12... Rb2 13. a4 Rb1# 0-1");
+        PgnParser.ParseResult result = PgnParser.parseGame(text);
+
+        assertFalse(result.hasErrors(), result.errors.toString());
+        assertEquals(12, result.firstMoveNumber);
+        assertFalse(result.blackMovesFirst);
+        assertEquals(4, result.moves.size());
+        assertEquals("white", result.getPlayerColor(0));
+        assertEquals("black", result.getPlayerColor(1));
+        assertEquals(12, result.getMoveNumber(1));
+        assertEquals("white", result.getPlayerColor(2));
+        assertEquals(13, result.getMoveNumber(2));
+        assertFalse(new PgnValidator().validateGame(text).hasErrors());
+    }
+
+    @Test
+    public void testBlackToMoveFenGame() {
+        String text = game("b - - 0 30", "30... Rb2 31. a3 Rb1# 0-1");
+        PgnParser.ParseResult result = PgnParser.parseGame(text);
+
+        assertFalse(result.hasErrors(), result.errors.toString());
+        assertEquals(30, result.firstMoveNumber);
+        assertTrue(result.blackMovesFirst);
+        assertEquals(3, result.moves.size());
+        assertEquals("black", result.getPlayerColor(0));
+        assertEquals(30, result.getMoveNumber(0));
+        assertEquals("white", result.getPlayerColor(1));
+        assertEquals(31, result.getMoveNumber(1));
+        assertEquals("black", result.getPlayerColor(2));
+        assertEquals(31, result.getMoveNumber(2));
+        assertFalse(new PgnValidator().validateGame(text).hasErrors());
+    }
+
+    @Test
+    public void testMisnumberedFenMovesAreReported() {
+        PgnParser.ParseResult skipped = PgnParser.parseGame(game("b - - 0 30", "30... Rb2 32. a3 0-1"));
+        assertTrue(skipped.errors.contains("Unexpected move number: 32 (expected 31)"), skipped.errors.toString());
+
+        PgnParser.ParseResult wrongSide = PgnParser.parseGame(game("w - - 0 12", "12... a3 0-1"));
+        assertTrue(wrongSide.errors.contains("Move number 12... given for a white move"), wrongSide.errors.toString());
+
+        PgnParser.ParseResult dangling = PgnParser.parseGame(game("b - - 0 30", "30... Rb2 31. 0-1"));
+        assertTrue(dangling.errors.contains("Move count doesn't match move numbers (expected 2, got 1)"),
+                dangling.errors.toString());
+    }
+}
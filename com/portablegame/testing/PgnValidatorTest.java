@@ -0,0 +1,42 @@
+package com.portablegame.testing;
+
+import com.portablegame.util.ErrorReport;
+import com.portablegame.util.PgnValidator;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgnValidatorTest {
+    private static final String HEADERS = "[Event \"Test\"]\n" +
+            "[Site \"?\"]\n" +
+            "[Date \"????.??.??\"]\n" +
+            "[Round \"?\"]\n" +
+            "[White \"?\"]\n" +
+            "[Black \"?\"]\n";
+    private static final String DEAD_AFTER_CAPTURE = "[SetUp \"1\"]\n" +
+            "[FEN \"4k3/8/8/8/8/8/4r3/4K2B w - - 0 1\"]\n";
+
+    @Test
+    public void testGameEndingInDeadPositionIsValid() {
+        String game = HEADERS + "[Result \"1/2-1/2\"]\n" + DEAD_AFTER_CAPTURE + "\n1. Kxe2 1/2-1/2";
+        assertFalse(new PgnValidator().validateGame(game).hasErrors());
+    }
+
+    @Test
+    public void testMovesAfterDeadPositionAreReported() {
+        String game = HEADERS + "[Result \"1/2-1/2\"]\n" + DEAD_AFTER_CAPTURE + "\n1. Kxe2 Kd7 2. Bd5 1/2-1/2";
+        ErrorReport report = new PgnValidator().validateGame(game);
+        assertTrue(report.hasErrors());
+        assertTrue(report.generateConsoleOutput().contains("after the game ended by insufficient material"));
+    }
+
+    @Test
+    public void testMovesAfterCheckmateAreReported() {
+        String game = HEADERS + "[Result \"0-1\"]\n\n1. f3 e5 2. g4 Qh4# 3. Nf3 0-1";
+        ErrorReport report = new PgnValidator().validateGame(game);
+        assertTrue(report.hasErrors());
+        assertTrue(report.generateConsoleOutput().contains("after the game ended by checkmate"));
+
+        String ended = HEADERS + "[Result \"0-1\"]\n\n1. f3 e5 2. g4 Qh4# 0-1";
+        assertFalse(new PgnValidator().validateGame(ended).hasErrors());
+    }
+}
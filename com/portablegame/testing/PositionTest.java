@@ -0,0 +1,59 @@
+package com.portablegame.testing;
+
+import com.portablegame.main.model.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionTest {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String PROMOTIONS = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+
+    @Test
+    public void testPlayMatchesBoard() {
+        for (String fen : new String[]{KIWIPETE, PROMOTIONS}) {
+            Board board = Board.fromFEN(fen);
+            Position root = board.toPosition();
+            assertEquals(board.toFEN(), root.toFEN());
+            assertEquals(board.positionKey(), root.positionKey());
+            compareTree(board, root, 2);
+        }
+    }
+
+    private void compareTree(Board board, Position position, int depth) {
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            Position next = position.play(moves.get(i));
+            assertEquals(board.toFEN(), next.toFEN());
+            assertEquals(board.positionKey(), next.positionKey());
+            if (depth > 1) {
+                compareTree(board, next, depth - 1);
+            }
+            board.unmakeMove();
+        }
+    }
+
+    @Test
+    public void testEarlierPositionsAreUnchanged() {
+        Board board = new Board();
+        Position start = board.toPosition();
+        String startFen = start.toFEN();
+
+        Position afterE4 = start.play(board.encodeMove(6, 4, 4, 4, null));
+        Position afterE5 = afterE4.play(Move.of(Bitboards.square(1, 4), Bitboards.square(3, 4)));
+        Position afterNf3 = afterE5.play(Move.of(Bitboards.square(7, 6), Bitboards.square(5, 5)));
+
+        assertEquals(startFen, start.toFEN());
+        assertEquals(Bitboards.square(5, 4), afterE4.getEnPassantSquare());
+        assertEquals(-1, afterNf3.getEnPassantSquare());
+        assertEquals(1, afterNf3.getHalfMoveClock());
+        assertEquals(2, afterNf3.getFullMoveNumber());
+        assertSame(afterE4, afterNf3.atPly(1));
+        assertSame(start, afterNf3.atPly(0));
+        assertNull(start.previous());
+        assertTrue(afterNf3.getPieceAt(Bitboards.square(5, 5)) instanceof Knight);
+        assertEquals(0L, afterNf3.getPieceMask(Bitboards.WHITE, Bitboards.KNIGHT) & (1L << Bitboards.square(7, 6)));
+        assertEquals(afterNf3.toFEN(), afterNf3.toBoard().toFEN());
+    }
+}
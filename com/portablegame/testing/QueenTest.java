@@ -1,38 +1,42 @@
 package com.portablegame.testing;
 
 
+import com.portablegame.main.model.Bitboards;
 import com.portablegame.main.model.Board;
-import com.portablegame.main.model.Pawn;
-import com.portablegame.main.model.Queen;
+import com.portablegame.main.model.Piece;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class QueenTest {
     private Board board;
-    private Queen queen;
+    private Piece queen;
 
     @BeforeEach
     public void setUp() {
         board = new Board();
-        queen = new Queen("white", 3, 3, board);
+        queen = Piece.of(Bitboards.WHITE, Bitboards.QUEEN);
         board.setPieceAt(3, 3, queen);
     }
 
+    private boolean canMove(int toRow, int toCol) {
+        return queen.isValidMove(board, Bitboards.square(3, 3), Bitboards.square(toRow, toCol));
+    }
+
 
     @Test
     public void testInvalidMoves() {
-        assertFalse(queen.isValidMove(5, 4));
-        assertFalse(queen.isValidMove(1, 2));
+        assertFalse(canMove(5, 4));
+        assertFalse(canMove(1, 2));
     }
 
     @Test
     public void testBlockedPath() {
-        board.setPieceAt(4, 4, new Pawn("white", 4, 4, board));
-        assertFalse(queen.isValidMove(5, 5));
-        board.setPieceAt(3, 5, new Pawn("white", 3, 5, board));
-        assertFalse(queen.isValidMove(3, 6));
-        board.setPieceAt(4, 4, new Pawn("black", 4, 4, board));
-        assertTrue(queen.isValidMove(4, 4));
+        board.setPieceAt(4, 4, Piece.of(Bitboards.WHITE, Bitboards.PAWN));
+        assertFalse(canMove(5, 5));
+        board.setPieceAt(3, 5, Piece.of(Bitboards.WHITE, Bitboards.PAWN));
+        assertFalse(canMove(3, 6));
+        board.setPieceAt(4, 4, Piece.of(Bitboards.BLACK, Bitboards.PAWN));
+        assertTrue(canMove(4, 4));
     }
-}
\ No newline at end of file
+}
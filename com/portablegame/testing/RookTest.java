@@ -1,44 +1,52 @@
 package com.portablegame.testing;
 
+import com.portablegame.main.model.Bitboards;
 import com.portablegame.main.model.Board;
-import com.portablegame.main.model.Pawn;
-import com.portablegame.main.model.Rook;
+import com.portablegame.main.model.Piece;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class RookTest {
     private Board board;
-    private Rook rook;
+    private Piece rook;
 
     @BeforeEach
     public void setUp() {
         board = new Board();
-        rook = new Rook("white", 3, 3, board);
+        rook = Piece.of(Bitboards.WHITE, Bitboards.ROOK);
         board.setPieceAt(3, 3, rook);
     }
 
+    private boolean canMove(int toRow, int toCol) {
+        return rook.isValidMove(board, Bitboards.square(3, 3), Bitboards.square(toRow, toCol));
+    }
 
     @Test
     public void testInvalidMoves() {
-        assertFalse(rook.isValidMove(4, 4));
-        assertFalse(rook.isValidMove(2, 2));
-        assertFalse(rook.isValidMove(5, 4));
+        assertFalse(canMove(4, 4));
+        assertFalse(canMove(2, 2));
+        assertFalse(canMove(5, 4));
     }
 
     @Test
     public void testBlockedPath() {
-        board.setPieceAt(3, 5, new Pawn("white", 3, 5, board));
-        assertFalse(rook.isValidMove(3, 6));
+        board.setPieceAt(3, 5, Piece.of(Bitboards.WHITE, Bitboards.PAWN));
+        assertFalse(canMove(3, 6));
 
-        board.setPieceAt(3, 5, new Pawn("black", 3, 5, board));
-        assertTrue(rook.isValidMove(3, 5));
+        board.setPieceAt(3, 5, Piece.of(Bitboards.BLACK, Bitboards.PAWN));
+        assertTrue(canMove(3, 5));
     }
 
     @Test
     public void testCastlingStatus() {
-        assertFalse(rook.hasMoved());
-        rook.moveTo(3, 4);
-        assertTrue(rook.hasMoved());
+        Board castling = Board.fromFEN("4k3/8/8/8/8/8/8/4K2R w K - 0 1");
+        assertTrue(castling.snapshot().tryCastle("white", true));
+
+        assertTrue(castling.tryMove("h1", "h2", null));
+        assertTrue(castling.tryMove("e8", "d8", null));
+        assertTrue(castling.tryMove("h2", "h1", null));
+        assertTrue(castling.tryMove("d8", "e8", null));
+        assertFalse(castling.tryCastle("white", true));
     }
-}
\ No newline at end of file
+}
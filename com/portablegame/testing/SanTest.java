@@ -0,0 +1,55 @@
+package com.portablegame.testing;
+
+import com.portablegame.main.model.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SanTest {
+    private static final String MOVE_PATTERN =
+            "^(?:([KQRBN])([a-h]?[1-8]?)x?([a-h][1-8])(=[QRBN])?[+#]?" +
+                    "|([a-h])x([a-h][1-8])(=[QRBN])?[+#]?" +
+                    "|([a-h][1-8])(=[QRBN])?[+#]?" +
+                    "|(O-O(?:-O)?)[+#]?)$";
+
+    @Test
+    public void testDecodeFields() {
+        int san = San.decode("Nbxd7+");
+        assertEquals(Bitboards.KNIGHT, San.pieceType(san));
+        assertEquals(1, San.fromCol(san));
+        assertEquals(-1, San.fromRow(san));
+        assertEquals(Bitboards.square(1, 3), San.target(san));
+        assertTrue(San.isCapture(san));
+        assertTrue(San.isCheck(san));
+        assertFalse(San.isMate(san));
+
+        san = San.decode("exd8=N#");
+        assertEquals(Bitboards.PAWN, San.pieceType(san));
+        assertEquals(4, San.fromCol(san));
+        assertEquals(Bitboards.KNIGHT, San.promotionType(san));
+        assertTrue(San.isMate(san));
+        assertTrue(San.isCheck(san));
+
+        san = San.decode("R1e2");
+        assertEquals(Bitboards.ROOK, San.pieceType(san));
+        assertEquals(7, San.fromRow(san));
+        assertEquals(-1, San.fromCol(san));
+        assertFalse(San.isCapture(san));
+
+        assertTrue(San.isKingsideCastling(San.decode("O-O")));
+        assertTrue(San.isCastling(San.decode("O-O-O+")));
+        assertFalse(San.isKingsideCastling(San.decode("O-O-O")));
+    }
+
+    @Test
+    public void testAcceptsWhatThePatternAccepts() {
+        String[] tokens = {
+                "e4", "e8=Q", "exd5", "exd8=R+", "Nf3", "Nbd7", "N1f3", "Qh4xe1", "Qh4e1#", "Kxe2",
+                "O-O", "O-O-O#", "Rxa1+", "Nf8=Q", "", "+", "e9", "i4", "ed5", "exd", "Pe4", "e4++",
+                "e4!", "O-O-", "0-0", "Nf3x", "Nxf", "e8=K", "e8Q", "N", "Nbb1d2", "Kx", "xe4", "o-o",
+                "Bb5", "bxc6", "Bxc6", "B1xc6", "dxe6", "d1=N", "Q=e4", "e4=", "a1=Q#", "Ra1a2+"
+        };
+        for (String token : tokens) {
+            assertEquals(token.matches(MOVE_PATTERN), San.decode(token) != San.INVALID, token);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.portablegame.util;
+
+import com.portablegame.main.model.*;
+import java.lang.ref.Reference;
+import java.util.function.Supplier;
+
+/**
+ * Measures the retained heap per live game for full and compact boards, by holding many copies of
+ * one middlegame position and comparing used heap before and after. Run with a fixed heap (for
+ * example -Xms1g -Xmx1g) so collections between the two readings do not skew the result.
+ *
+ * Usage: java com.portablegame.util.BoardFootprint [count]
+ */
+public class BoardFootprint {
+    private static final String[][] OPENING = {
+            {"e2", "e4"}, {"e7", "e5"}, {"g1", "f3"}, {"b8", "c6"}, {"f1", "b5"}, {"a7", "a6"},
+            {"b5", "a4"}, {"g8", "f6"}, {"e1", "g1"}, {"f8", "e7"}, {"f1", "e1"}, {"b7", "b5"},
+            {"a4", "b3"}, {"d7", "d6"}, {"c2", "c3"}, {"e8", "g8"}, {"h2", "h3"}, {"c6", "b8"},
+            {"d2", "d4"}, {"b8", "d7"}, {"b1", "d2"}, {"c8", "b7"}, {"d2", "f1"}, {"b7", "c8"}
+    };
+
+    public static Board middlegame() {
+        Board board = new Board();
+        for (String[] move : OPENING) {
+            if (!board.tryMove(move[0], move[1], null)) {
+                throw new IllegalStateException("Opening move rejected: " + move[0] + move[1]);
+            }
+        }
+        return board;
+    }
+
+    public static long bytesPerBoard(int count, Supplier<Object> factory) {
+        Object[] held = new Object[count];
+        long before = usedHeap();
+        for (int i = 0; i < count; i++) {
+            held[i] = factory.get();
+        }
+        long after = usedHeap();
+        Reference.reachabilityFence(held);
+        return (after - before) / count;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Board game = middlegame();
+
+        long full = bytesPerBoard(Math.max(1, count / 10), game::snapshot);
+        long compact = bytesPerBoard(count, () -> new CompactBoard(game));
+
+        System.out.println("Position: " + game.toFEN());
+        System.out.printf("Board:        %,d bytes per game%n", full);
+        System.out.printf("CompactBoard: %,d bytes per game%n", compact);
+        System.out.printf("%,d compact games: %,d KB%n", count, compact * count / 1024);
+    }
+}
@@ -0,0 +1,32 @@
+package com.portablegame.util;
+
+import com.portablegame.main.model.Board;
+
+/**
+ * One reusable board per thread for batch validation. Acquiring resets the thread's board in place
+ * (array copies from the initial position, or a FEN parse), so validating a game allocates no board.
+ * The board belongs to the thread until its next acquire: take a snapshot of it before handing it to
+ * anything that outlives the game, such as an error report.
+ */
+public final class BoardPool {
+    private static final ThreadLocal<Board> BOARDS = ThreadLocal.withInitial(Board::new);
+
+    private BoardPool() {
+    }
+
+    public static Board acquire() {
+        Board board = BOARDS.get();
+        board.reset();
+        return board;
+    }
+
+    // the thread's board at the given FEN, or at the initial position when the FEN is null
+    public static Board acquire(String fen) {
+        if (fen == null) {
+            return acquire();
+        }
+        Board board = BOARDS.get();
+        board.reset(fen);
+        return board;
+    }
+}
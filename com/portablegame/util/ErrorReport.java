@@ -189,9 +189,9 @@ public class ErrorReport {
         });
 
         if (finalBoardState != null) {
-            sb.append("\nFinal Board State:\n")
-                    .append(finalBoardState.toFEN())
-                    .append("\n");
+            sb.append("\nFinal Board State:\n");
+            finalBoardState.appendFEN(sb);
+            sb.append("\n");
         }
 
         return sb.toString();
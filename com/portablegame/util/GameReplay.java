@@ -0,0 +1,92 @@
+package com.portablegame.util;
+
+import com.portablegame.main.model.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Random access to the positions of a validated game. The moves are kept as packed ints and a
+ * compact {@link Position} is stored every {@code interval} plies, so {@link #seek(int)} replays at
+ * most interval - 1 moves and memory stays at one position per interval plus four bytes per ply.
+ */
+public class GameReplay {
+    public static final int DEFAULT_INTERVAL = 16;
+
+    private final int interval;
+    private final List<Position> snapshots = new ArrayList<>();
+    private int[] moves = new int[128];
+    private int length;
+    // last position handed out by seek, so stepping forward one ply costs one move
+    private Position cursor;
+    private int cursorPly = -1;
+
+    public GameReplay(Board start) {
+        this(start, DEFAULT_INTERVAL);
+    }
+
+    public GameReplay(Board start, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be positive: " + interval);
+        }
+        this.interval = interval;
+        snapshots.add(start.toPosition());
+    }
+
+    // call after each move has been played on the board, with the board in its new position
+    public void record(int move, Board after) {
+        if (length == moves.length) {
+            moves = Arrays.copyOf(moves, length * 2);
+        }
+        moves[length++] = move;
+        if (length % interval == 0) {
+            snapshots.add(after.toPosition());
+        }
+    }
+
+    public Position seek(int ply) {
+        if (ply < 0 || ply > length) {
+            throw new IllegalArgumentException("Ply " + ply + " is outside 0.." + length);
+        }
+        int base = ply / interval * interval;
+        Position position;
+        int current;
+        if (cursor != null && cursorPly <= ply && cursorPly >= base) {
+            position = cursor;
+            current = cursorPly;
+        } else {
+            position = snapshots.get(ply / interval);
+            current = base;
+        }
+        for (; current < ply; current++) {
+            position = position.play(moves[current]);
+        }
+        cursor = position;
+        cursorPly = ply;
+        return position;
+    }
+
+    public Board boardAt(int ply) {
+        return seek(ply).toBoard();
+    }
+
+    // the move played from ply - 1 to ply
+    public int getMove(int ply) {
+        if (ply < 1 || ply > length) {
+            throw new IllegalArgumentException("No move leads to ply " + ply);
+        }
+        return moves[ply - 1];
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public int getSnapshotCount() {
+        return snapshots.size();
+    }
+}
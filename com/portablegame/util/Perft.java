@@ -0,0 +1,134 @@
+package com.portablegame.util;
+
+import com.portablegame.main.model.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Counts leaf nodes of the legal move tree to a fixed depth. The counts for well-known positions are
+ * published, so a mismatch pinpoints a move generation bug; the timing doubles as a throughput gate.
+ *
+ * Usage: java com.portablegame.util.Perft depth [fen] [--divide] [--threads n]
+ */
+public class Perft {
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private final Board board;
+    private final MoveList[] lists;
+
+    public Perft(Board board, int maxDepth) {
+        this.board = board;
+        this.lists = new MoveList[maxDepth + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+    }
+
+    public long count(int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = lists[depth];
+        board.generateLegalMoves(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += count(depth - 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    public static long perft(String fen, int depth) {
+        return new Perft(Board.fromFEN(fen), depth).count(depth);
+    }
+
+    // node count below each root move, keyed by the move in coordinate form
+    public static Map<String, Long> divide(String fen, int depth) {
+        Board board = Board.fromFEN(fen);
+        Perft perft = new Perft(board, depth);
+        MoveList root = new MoveList();
+        board.generateLegalMoves(root);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < root.size(); i++) {
+            board.makeMove(root.get(i));
+            counts.put(Move.toUci(root.get(i)), depth > 1 ? perft.count(depth - 1) : 1L);
+            board.unmakeMove();
+        }
+        return counts;
+    }
+
+    // splits the root moves across threads; each worker searches a snapshot taken after its root move
+    public static long perftParallel(String fen, int depth, int threads) throws InterruptedException {
+        if (depth < 2) {
+            return perft(fen, depth);
+        }
+        Board start = Board.fromFEN(fen);
+        MoveList root = new MoveList();
+        start.generateLegalMoves(root);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < root.size(); i++) {
+                Board board = start.snapshot();
+                board.makeMove(root.get(i));
+                results.add(executor.submit(() -> {
+                    return new Perft(board, depth - 1).count(depth - 1);
+                }));
+            }
+            long nodes = 0;
+            for (Future<Long> result : results) {
+                nodes += result.get();
+            }
+            return nodes;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Perft worker failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            System.out.println("Usage: java com.portablegame.util.Perft depth [fen] [--divide] [--threads n]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        String fen = START_POSITION;
+        boolean divide = false;
+        int threads = 1;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--divide")) {
+                divide = true;
+            } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                fen = args[i];
+            }
+        }
+
+        long start = System.nanoTime();
+        long nodes;
+        if (divide) {
+            nodes = 0;
+            for (Map.Entry<String, Long> entry : divide(fen, depth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+        } else if (threads > 1) {
+            nodes = perftParallel(fen, depth, threads);
+        } else {
+            nodes = perft(fen, depth);
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+
+        System.out.println("Nodes: " + nodes);
+        System.out.printf("Time: %.3f s (%d thread%s)%n", elapsed / 1e9, threads, threads == 1 ? "" : "s");
+        System.out.printf("Speed: %,d nodes/sec%n", (long) (nodes * 1e9 / elapsed));
+    }
+}
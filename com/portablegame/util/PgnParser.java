@@ -86,6 +86,7 @@ public class PgnParser {
             }
         }
 
+        readStartingPosition(result);
         if (movesText.length() > 0) {
             processMoveText(movesText.toString(), result);
         } else if (!result.headers.isEmpty()) {
@@ -112,6 +113,19 @@ public class PgnParser {
         }
     }
 
+    // a FEN header moves the first move number and, with black to move, the colour of the first move
+    private static void readStartingPosition(ParseResult result) {
+        String fen = result.getStartingFen();
+        if (fen == null) {
+            return;
+        }
+        String[] fields = fen.trim().split("\\s+");
+        result.blackMovesFirst = fields.length > 1 && fields[1].equals("b");
+        if (fields.length > 5 && fields[5].matches("\\d+")) {
+            result.firstMoveNumber = Math.max(1, Integer.parseInt(fields[5]));
+        }
+    }
+
     private static void processMoveText(String movesText, ParseResult result) {
         movesText = COMMENT_PATTERN.matcher(movesText).replaceAll("");
         movesText = VARIATION_PATTERN.matcher(movesText).replaceAll("");
@@ -119,8 +133,10 @@ public class PgnParser {
 
         String cleaned = movesText.replaceAll("\\s+", " ").trim();
         String[] tokens = cleaned.split("(?<=\\s)(?=\\d+\\.)|\\s+");
-        int currentMoveNumber = 0;
-        boolean expectingWhite = true;
+        // the number and colour of the next move, advanced once per ply
+        int currentMoveNumber = result.firstMoveNumber;
+        boolean expectingWhite = !result.blackMovesFirst;
+        boolean numberPending = false;
 
         for (String token : tokens) {
             if (token.isEmpty()) continue;
@@ -128,14 +144,17 @@ public class PgnParser {
             Matcher moveNumMatcher = MOVE_NUMBER_PATTERN.matcher(token);
             if (moveNumMatcher.find()) {
                 int moveNum = Integer.parseInt(moveNumMatcher.group("moveNum"));
-                if (moveNum != currentMoveNumber + 1) {
+                if (moveNum != currentMoveNumber) {
                     result.addError(String.format(
                             "Unexpected move number: %d (expected %d)",
-                            moveNum, currentMoveNumber + 1
+                            moveNum, currentMoveNumber
                     ));
+                    currentMoveNumber = moveNum;
                 }
-                currentMoveNumber = moveNum;
-                expectingWhite = true;
+                if (moveNumMatcher.group().contains("...") && expectingWhite) {
+                    result.addError(String.format("Move number %d... given for a white move", moveNum));
+                }
+                numberPending = true;
                 continue;
             }
 
@@ -148,6 +167,7 @@ public class PgnParser {
             if (moveMatcher.matches()) {
                 String move = moveMatcher.group("move");
                 result.moves.add(move);
+                numberPending = false;
 
                 if (!expectingWhite) {
                     currentMoveNumber++;
@@ -168,11 +188,10 @@ public class PgnParser {
             }
         }
 
-        int expectedMoves = currentMoveNumber * 2 - (expectingWhite ? 1 : 0);
-        if (expectedMoves != result.moves.size()) {
+        if (numberPending) {
             result.addError(String.format(
                     "Move count doesn't match move numbers (expected %d, got %d)",
-                    expectedMoves, result.moves.size()
+                    result.moves.size() + 1, result.moves.size()
             ));
         }
     }
@@ -205,6 +224,8 @@ public class PgnParser {
         public final List<Integer> castlingMoves = new ArrayList<>();
         public final List<String> promotions = new ArrayList<>();
         public String result;
+        public int firstMoveNumber = 1;
+        public boolean blackMovesFirst;
 
         public boolean hasErrors() {
             return !errors.isEmpty();
@@ -223,11 +244,17 @@ public class PgnParser {
         }
 
         public String getPlayerColor(int moveIndex) {
-            return moveIndex % 2 == 0 ? "white" : "black";
+            return (moveIndex + (blackMovesFirst ? 1 : 0)) % 2 == 0 ? "white" : "black";
         }
 
         public int getMoveNumber(int moveIndex) {
-            return (moveIndex / 2) + 1;
+            return (moveIndex + (blackMovesFirst ? 1 : 0)) / 2 + firstMoveNumber;
+        }
+
+        // the FEN header of a game set up from a position, null for games from the initial position
+        public String getStartingFen() {
+            String fen = headers.get("Fen");
+            return fen == null || fen.isBlank() || "0".equals(headers.get("Setup")) ? null : fen;
         }
 
         public boolean isCheck(int moveIndex) {
@@ -56,13 +56,14 @@ public class PgnValidator {
         validateHeaders(parseResult, report);
 
         // Validate moves
-        ValidationResult validationResult = validateMoves(parseResult);
+        ValidationResult validationResult = validateMoves(parseResult, 0);
         if (!validationResult.valid) {
             for (String error : validationResult.errors) {
                 report.addMoveError(ErrorType.ILLEGAL_MOVE, error,
                         validationResult.moveNumber, validationResult.moveText);
             }
-            report.setFinalBoardState(validationResult.board);
+            // the pooled board is reset by the next game, so the report keeps its own copy
+            report.setFinalBoardState(validationResult.board.snapshot());
         }
 
         // Only validate result if moves were valid
@@ -73,6 +74,12 @@ public class PgnValidator {
         return report;
     }
 
+    // validates the game like validateGame and keeps its moves for seeking; a game with an illegal
+    // move is recorded up to the ply before it, and null is returned when the FEN header is not legal
+    public GameReplay replayGame(String gameText, int snapshotInterval) {
+        return validateMoves(PgnParser.parseGame(gameText), snapshotInterval).replay;
+    }
+
     private void validateHeaders(PgnParser.ParseResult parseResult, ErrorReport report) {
         String[] requiredHeaders = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
         for (String header : requiredHeaders) {
@@ -99,18 +106,41 @@ public class PgnValidator {
         }
     }
 
-    private ValidationResult validateMoves(PgnParser.ParseResult parseResult) {
+    private ValidationResult validateMoves(PgnParser.ParseResult parseResult, int snapshotInterval) {
         ValidationResult result = new ValidationResult();
-        result.board = new Board();
-        result.board.initializeBoard();
         result.valid = true;
+        try {
+            result.board = BoardPool.acquire(parseResult.getStartingFen());
+        } catch (IllegalArgumentException e) {
+            result.board = BoardPool.acquire();
+            result.valid = false;
+            result.errors.add("Invalid FEN header: " + e.getMessage());
+            return result;
+        }
+        if (snapshotInterval > 0) {
+            result.replay = new GameReplay(result.board, snapshotInterval);
+        }
 
+        MoveValidation validation = null;
         for (int i = 0; i < parseResult.moves.size(); i++) {
             String moveText = parseResult.moves.get(i);
             String color = parseResult.getPlayerColor(i);
             int moveNumber = parseResult.getMoveNumber(i);
 
             try {
+                validation = validation == null
+                        ? new MoveValidation(moveNumber, moveText, color)
+                        : validation.reset(moveNumber, moveText, color);
+                if (!validation.validateGameInProgress(result.board)) {
+                    result.errors.addAll(validation.getErrors());
+                    result.valid = false;
+                    if (result.moveNumber == 0) {
+                        result.moveNumber = moveNumber;
+                        result.moveText = moveText;
+                    }
+                    continue;
+                }
+
                 if (moveText.equals("O-O") || moveText.equals("O-O-O")) {
                     boolean kingside = moveText.equals("O-O");
                     if (!result.board.tryCastle(color, kingside)) {
@@ -122,8 +152,10 @@ public class PgnValidator {
                         }
                         continue;
                     }
+                    int row = color.equals("white") ? 7 : 0;
+                    record(result, Move.of(Bitboards.square(row, 4), Bitboards.square(row, kingside ? 6 : 2),
+                            0, Move.FLAG_CASTLING));
                 } else {
-                    MoveValidation validation = new MoveValidation(moveNumber, moveText, color);
                     if (!validation.validateMove(moveText, color, result.board)) {
                         result.errors.addAll(validation.getErrors());
                         result.valid = false;
@@ -134,16 +166,16 @@ public class PgnValidator {
                         continue;
                     }
 
-                    MoveCoordinates coords = validation.getCoordinates();
-                    String promotion = parseResult.getPromotion(i);
-                    if (!result.board.tryMove(coords.from, coords.to, promotion)) {
+                    if (!result.board.tryMove(validation.getMove())) {
                         result.errors.add("Failed to execute move: " + moveText);
                         result.valid = false;
                         if (result.moveNumber == 0) {
                             result.moveNumber = moveNumber;
                             result.moveText = moveText;
                         }
+                        continue;
                     }
+                    record(result, validation.getMove());
                 }
             } catch (Exception e) {
                 result.errors.add("Error processing move: " + e.getMessage());
@@ -158,6 +190,13 @@ public class PgnValidator {
         return result;
     }
 
+    // the replay stops at the first rejected move, since later positions no longer follow the game
+    private void record(ValidationResult result, int move) {
+        if (result.replay != null && result.valid) {
+            result.replay.record(move, result.board);
+        }
+    }
+
     private void validateGameResult(String result, Board board, ErrorReport report) {
         if (result == null || result.equals("*")) {
             return; // Ongoing game, no result to validate
@@ -198,6 +237,7 @@ public class PgnValidator {
     private static class ValidationResult {
         boolean valid = true;
         Board board;
+        GameReplay replay;
         List<String> errors = new ArrayList<>();
         int moveNumber;
         String moveText;
@@ -0,0 +1,105 @@
+package com.portablegame.util;
+
+import com.portablegame.main.model.San;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Times SAN decoding over the move tokens of a PGN file: San.decode against the regex steps
+ * MoveValidation used to run per move (the syntax pattern, stripping check marks, and the patterns
+ * compiled per call to pick the move kind apart). Both paths produce a checksum so neither can be
+ * optimized away.
+ *
+ * Usage: java com.portablegame.util.SanBenchmark pgn-file [rounds]
+ */
+public class SanBenchmark {
+    private static final String MOVE_PATTERN =
+            "^(?:([KQRBN])([a-h]?[1-8]?)x?([a-h][1-8])(=[QRBN])?[+#]?" +
+                    "|([a-h])x([a-h][1-8])(=[QRBN])?[+#]?" +
+                    "|([a-h][1-8])(=[QRBN])?[+#]?" +
+                    "|(O-O(?:-O)?)[+#]?)$";
+
+    public static long decodeAll(List<String> tokens) {
+        long checksum = 0;
+        for (String token : tokens) {
+            checksum += San.decode(token);
+        }
+        return checksum;
+    }
+
+    // the per-move regex work of the previous MoveValidation parse path
+    public static long regexAll(List<String> tokens) {
+        long checksum = 0;
+        for (String token : tokens) {
+            if (!token.matches(MOVE_PATTERN)) {
+                continue;
+            }
+            String clean = token.replaceAll("[+#!?]", "").trim();
+            if (clean.equals("O-O") || clean.equals("O-O-O")) {
+                checksum += clean.length();
+                continue;
+            }
+            if (clean.matches("[a-h][18]=[QRBN]")) {
+                checksum += clean.charAt(3);
+                continue;
+            }
+            Matcher m = Pattern.compile("^([KQRBN])([a-h]?[1-8]?)(x?)([a-h][1-8])(=[QRBN])?$").matcher(clean);
+            if (m.matches()) {
+                checksum += m.group(1).charAt(0) + m.group(2).length() + m.group(4).charAt(0);
+                continue;
+            }
+            m = Pattern.compile("^([a-h])x([a-h][1-8])(=[QRBN])?$").matcher(clean);
+            if (m.matches()) {
+                checksum += m.group(1).charAt(0) + m.group(2).charAt(1);
+                continue;
+            }
+            if (clean.matches("^[a-h][1-8]$")) {
+                checksum += clean.charAt(0);
+            }
+        }
+        return checksum;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: java com.portablegame.util.SanBenchmark pgn-file [rounds]");
+            return;
+        }
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        List<String> tokens = new ArrayList<>();
+        for (String game : PgnParser.readGamesFromFile(args[0])) {
+            tokens.addAll(PgnParser.parseGame(game).moves);
+        }
+        if (tokens.isEmpty()) {
+            System.out.println("No moves found in " + args[0]);
+            return;
+        }
+
+        // warm up both paths before timing
+        long checksum = 0;
+        for (int i = 0; i < Math.max(1, rounds / 10); i++) {
+            checksum += decodeAll(tokens) + regexAll(tokens);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            checksum += regexAll(tokens);
+        }
+        long regexNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            checksum += decodeAll(tokens);
+        }
+        long decodeNanos = Math.max(1, System.nanoTime() - start);
+
+        long total = (long) tokens.size() * rounds;
+        System.out.printf("Tokens: %,d x %d rounds (checksum %d)%n", tokens.size(), rounds, checksum);
+        System.out.printf("Regex path: %,.1f ns/move%n", (double) regexNanos / total);
+        System.out.printf("San.decode: %,.1f ns/move%n", (double) decodeNanos / total);
+        System.out.printf("Speedup:    %.1fx%n", (double) regexNanos / decodeNanos);
+    }
+}